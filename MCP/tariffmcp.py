@@ -21,6 +21,7 @@ log = logging.getLogger("tariff-mcp")
 OPENAI_API_KEY = os.environ.get("OPENAI_API_KEY")
 # VECTOR_STORE_ID = os.environ.get("VECTOR_STORE_ID")          # your HTS vector store
 TARIFF_API_URL = os.environ.get("TARIFF_API_URL")            # e.g. https://api.example.com/tariff/calc
+TARIFF_SUGGEST_URL = os.environ.get("TARIFF_SUGGEST_URL")    # e.g. http://localhost:8080/api/tariff/suggest
 # --- Clients ---
 openai_client = OpenAI()  # picks up OPENAI_API_KEY
 vectordb_client = vectordb()
@@ -53,6 +54,11 @@ def call_tariff_api(payload: Dict[str, Any]) -> Dict[str, Any]:
     resp = requests.post(url, json=payload, headers=headers, timeout=60)
     resp.raise_for_status()
     return resp.json()
+def call_suggest_api(query: str) -> str:
+    """Ask the tariff backend for matching HTS-8 codes, one per line."""
+    resp = requests.get(TARIFF_SUGGEST_URL, params={"q": query, "limit": 5}, timeout=10)
+    resp.raise_for_status()
+    return "".join(f"{s['hts8']}: {s['briefDescription']}\n" for s in resp.json())
 def create_server() -> FastMCP:
     mcp = FastMCP(name="Tariff MCP Server", instructions=SERVER_INSTRUCTIONS)
     @mcp.tool(
@@ -68,6 +74,14 @@ def create_server() -> FastMCP:
         """
         if not query or not query.strip():
             return ""
+        # Prefer the backend's local index when configured, the vector store otherwise
+        if TARIFF_SUGGEST_URL:
+            try:
+                content = call_suggest_api(query)
+                if content:
+                    return content
+            except requests.RequestException as e:
+                log.warning("Suggest API failed, falling back to vector search: %s", e)
         content = vectordb_client.query_vectordb(query)
         return content
     @mcp.tool(
@@ -0,0 +1,117 @@
+package com.tariff.app.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for comparing the backend's throughput with
+ * and without spring.threads.virtual.enabled.
+ *
+ * Each of the given number of clients sends GET requests back to back for the
+ * given duration, then throughput and latency percentiles are printed. Run it
+ * against the same endpoint once per execution mode, e.g.:
+ *
+ *   mvn spring-boot:run                    (platform threads, Tomcat's 200)
+ *   mvn spring-boot:run -Pvirtual-threads  (virtual threads)
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.tariff.app.benchmark.ConcurrencyBenchmark \
+ *       -Dbenchmark.args="http://localhost:8080/api/games/leaderboard 2000 30"
+ *
+ * It has no dependencies, so it also runs as a single source file:
+ *
+ *   java src/jmh/java/com/tariff/app/benchmark/ConcurrencyBenchmark.java "http://localhost:8080/api/games/leaderboard" 2000 30
+ *
+ * Endpoints that reach the database show the difference; ones served from
+ * memory are CPU bound either way.
+ */
+public class ConcurrencyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java ConcurrencyBenchmark.java <url> [clients=1000] [seconds=30] [warmupSeconds=5]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+
+        System.out.printf("Warming up for %d s%n", warmupSeconds);
+        run(http, request, Math.min(clients, 50), warmupSeconds);
+
+        System.out.printf("%d clients for %d s against %s%n", clients, seconds, uri);
+        Result result = run(http, request, clients, seconds);
+
+        long[] latencies = result.latenciesMicros();
+        Arrays.sort(latencies);
+        System.out.printf("requests   %d (%d failed)%n", latencies.length, result.failures());
+        System.out.printf("throughput %.1f req/s%n", latencies.length / (double) seconds);
+        System.out.printf("latency    p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private record Result(long[] latenciesMicros, long failures) {
+    }
+
+    private static Result run(HttpClient http, HttpRequest request, int clients, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong failures = new AtomicLong();
+        List<long[]> perClient = new ArrayList<>(clients);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long[][] latencies = {new long[1024]};
+                int[] count = {0};
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                failures.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                            continue;
+                        }
+                        if (count[0] == latencies[0].length) {
+                            latencies[0] = Arrays.copyOf(latencies[0], count[0] * 2);
+                        }
+                        latencies[0][count[0]++] = (System.nanoTime() - start) / 1000;
+                    }
+                    synchronized (perClient) {
+                        perClient.add(Arrays.copyOf(latencies[0], count[0]));
+                    }
+                });
+            }
+        }
+
+        long[] all = perClient.stream().flatMapToLong(Arrays::stream).toArray();
+        return new Result(all, failures.get());
+    }
+
+    private static double percentile(long[] sortedMicros, double p) {
+        if (sortedMicros.length == 0) {
+            return 0;
+        }
+        int i = (int) Math.ceil(p * sortedMicros.length) - 1;
+        return sortedMicros[Math.max(0, Math.min(i, sortedMicros.length - 1))] / 1000.0;
+    }
+}
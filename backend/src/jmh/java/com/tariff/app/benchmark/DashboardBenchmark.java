@@ -0,0 +1,56 @@
+package com.tariff.app.benchmark;
+
+import com.tariff.app.dto.DashboardDataResponse;
+import com.tariff.app.dto.ProductTariffData;
+import com.tariff.app.service.DashboardService;
+import com.tariff.app.service.TariffHeatmapService;
+import com.tariff.app.service.TariffScheduleEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard endpoints, served from the in-memory schedules, plus the cost of
+ * reloading one schedule and rebuilding everything derived from it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardBenchmark {
+
+    @Benchmark
+    public DashboardDataResponse getDashboardData(SeededApplication app) {
+        return app.bean(DashboardService.class).getDashboardData();
+    }
+
+    @Benchmark
+    public List<ProductTariffData> getCountryProductTariffs(SeededApplication app) {
+        return app.bean(DashboardService.class).getCountryProductTariffs("US");
+    }
+
+    @Benchmark
+    public List<DashboardDataResponse.TariffHeatmapData> getHeatmap(SeededApplication app) {
+        return app.bean(TariffHeatmapService.class).getHeatmap(null);
+    }
+
+    @Benchmark
+    public List<DashboardDataResponse.TariffHeatmapData> getHeatmapForCategory(SeededApplication app) {
+        return app.bean(TariffHeatmapService.class).getHeatmap("Machinery / Electrical");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<DashboardDataResponse.TariffHeatmapData> reloadScheduleAndHeatmap(SeededApplication app) {
+        app.bean(TariffScheduleEngine.class).reload("US");
+        return app.bean(TariffHeatmapService.class).getHeatmap(null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.tariff.app.benchmark;
+
+import com.tariff.app.TariffCalculatorApplication;
+import com.tariff.app.service.SyntheticDataGenerator;
+import com.tariff.app.service.TariffScheduleEngine;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+/**
+ * The application context, without the web server, over an in-memory H2
+ * database seeded by {@link SyntheticDataGenerator} with rowsPerCountry
+ * tariff lines in each of the 18 tariffrates_* tables. The seed is fixed, so
+ * every run benchmarks the same data.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    static final long SEED = 20240101L;
+
+    @Param({"1000", "10000"})
+    public int rowsPerCountry;
+
+    public ConfigurableApplicationContext context;
+    // The seeded HTS8 codes, in order
+    public List<String> hts8Codes;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(TariffCalculatorApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        // users declares PostgreSQL's TIMESTAMPTZ, which H2 only knows by its long name
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+                                + ";INIT=CREATE DOMAIN IF NOT EXISTS TIMESTAMPTZ AS TIMESTAMP WITH TIME ZONE",
+                        "spring.datasource.username=sa",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "openai.api.key=benchmark")
+                .run();
+
+        hts8Codes = context.getBean(SyntheticDataGenerator.class).generateTariffs(rowsPerCountry, false, SEED);
+        // Schedules loaded at startup saw empty tables
+        context.getBean(TariffScheduleEngine.class).reloadAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
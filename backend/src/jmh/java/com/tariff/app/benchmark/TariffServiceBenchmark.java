@@ -0,0 +1,87 @@
+package com.tariff.app.benchmark;
+
+import com.tariff.app.dto.TariffCalculationRequest;
+import com.tariff.app.dto.TariffCalculationResponse;
+import com.tariff.app.service.CountryTariffRegistry;
+import com.tariff.app.service.TariffSearchService;
+import com.tariff.app.service.TariffService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quote and search paths of {@link TariffService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TariffServiceBenchmark {
+
+    private static final String[] ORIGINS = {"CN", "SG", "AU", "JO", "DE", "MX", "VN", "IN"};
+
+    /**
+     * A fixed spread of quotes across codes, origins and destinations, cycled
+     * through per thread.
+     */
+    @State(Scope.Thread)
+    public static class Quotes {
+        TariffCalculationRequest[] requests;
+        int next;
+
+        @Setup(Level.Trial)
+        public void build(SeededApplication app) {
+            Random random = new Random(SeededApplication.SEED);
+            List<String> destinations = List.copyOf(app.bean(CountryTariffRegistry.class).getCodes());
+            requests = new TariffCalculationRequest[4096];
+            for (int i = 0; i < requests.length; i++) {
+                TariffCalculationRequest request = new TariffCalculationRequest();
+                request.setHts8(app.hts8Codes.get(random.nextInt(app.hts8Codes.size())));
+                request.setItemValue(100 + random.nextInt(100_000) / 10.0);
+                request.setItemQuantity((double) (1 + random.nextInt(500)));
+                request.setOriginCountry(ORIGINS[random.nextInt(ORIGINS.length)]);
+                request.setCountryOfArrival(destinations.get(random.nextInt(destinations.size())));
+                requests[i] = request;
+            }
+        }
+
+        TariffCalculationRequest next() {
+            TariffCalculationRequest request = requests[next];
+            next = (next + 1) & (requests.length - 1);
+            return request;
+        }
+    }
+
+    @Benchmark
+    public TariffCalculationResponse calculateTariff(SeededApplication app, Quotes quotes) {
+        return app.bean(TariffService.class).calculateTariff(quotes.next());
+    }
+
+    @Benchmark
+    public TariffSearchService.SearchPage searchTariffsByWord(SeededApplication app) {
+        return app.bean(TariffService.class).searchTariffs("frozen beef", "US", 0, 50);
+    }
+
+    @Benchmark
+    public TariffSearchService.SearchPage searchTariffsByCodePrefix(SeededApplication app) {
+        return app.bean(TariffService.class).searchTariffs("8471", "US", 0, 50);
+    }
+
+    @Benchmark
+    public TariffSearchService.SearchPage searchTariffsInAllCountries(SeededApplication app) {
+        return app.bean(TariffService.class).searchTariffs("cotton", TariffSearchService.ALL_COUNTRIES, 0, 50);
+    }
+}
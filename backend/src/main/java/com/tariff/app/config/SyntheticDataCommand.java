@@ -0,0 +1,60 @@
+package com.tariff.app.config;
+
+import com.tariff.app.service.SyntheticDataGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads synthetic data at startup when tariff.generate.enabled is set, then
+ * exits unless tariff.generate.exit=false, e.g.
+ *
+ * mvn spring-boot:run -Dspring-boot.run.arguments="--tariff.generate.enabled=true
+ *     --tariff.generate.rows-per-country=120000 --tariff.generate.users=50000"
+ *
+ * Sizes default to roughly the real schedule and a small user base; see
+ * {@link SyntheticDataGenerator} for what is written. Tariff lines are only
+ * written into empty tables; --tariff.generate.clear-tariffs=true deletes the
+ * existing rows first.
+ */
+@Component
+@ConditionalOnProperty(name = "tariff.generate.enabled", havingValue = "true")
+public class SyntheticDataCommand implements ApplicationRunner {
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${tariff.generate.rows-per-country:12000}")
+    private int rowsPerCountry;
+    @Value("${tariff.generate.clear-tariffs:false}")
+    private boolean clearTariffs;
+    @Value("${tariff.generate.users:1000}")
+    private int users;
+    @Value("${tariff.generate.scores-per-user:50}")
+    private int scoresPerUser;
+    @Value("${tariff.generate.days:30}")
+    private int days;
+    @Value("${tariff.generate.user-password:synthetic}")
+    private String userPassword;
+    @Value("${tariff.generate.seed:42}")
+    private long seed;
+    @Value("${tariff.generate.exit:true}")
+    private boolean exit;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generator.generate(new SyntheticDataGenerator.Plan(
+                rowsPerCountry, clearTariffs, users, scoresPerUser, days, userPassword, seed));
+        if (exit) {
+            System.exit(SpringApplication.exit(context));
+        }
+        // Otherwise the schedules load the new rows once the application is ready
+    }
+}
@@ -0,0 +1,37 @@
+package com.tariff.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Threads for the app's own blocking work, following spring.threads.virtual.enabled.
+ *
+ * With the property set, Spring Boot already serves requests, @Scheduled jobs
+ * and the application task executor on virtual threads; this makes blocking
+ * work the app hands off itself (reading streamed request bodies, per-country
+ * fan-out) do the same. Run with -Djdk.tracePinnedThreads=short to log any
+ * virtual thread that blocks while pinned to its carrier, e.g. inside a
+ * synchronized block.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingIoScheduler() {
+        if (virtualThreads) {
+            return Schedulers.fromExecutorService(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("blocking-io-", 1).factory()),
+                    "blocking-io");
+        }
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "blocking-io", 60, true);
+    }
+}
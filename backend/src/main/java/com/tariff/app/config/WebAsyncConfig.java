@@ -0,0 +1,26 @@
+package com.tariff.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Async request settings for endpoints returning Mono/Flux. Chat replies and
+ * streamed calculations routinely outlive the servlet container's 30 second
+ * default, so the default is raised; each endpoint enforces its own, shorter
+ * timeout on top.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    @Value("${spring.mvc.async.request-timeout:5m}")
+    private Duration requestTimeout;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(requestTimeout.toMillis());
+    }
+}
@@ -1,20 +1,41 @@
-// src/main/java/com/tariff/app/controller/ChatController.java
 package com.tariff.app.controller;
 
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/chat")
 @CrossOrigin(origins = "*")
 public class AiController {
 
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+        new ParameterizedTypeReference<ServerSentEvent<String>>() {};
+
+    private static final String TIMEOUT_MESSAGE = "The assistant took too long to respond";
+    private static final String UNAVAILABLE_MESSAGE = "The assistant is unavailable, please try again";
+
+    private final ConnectionProvider connectionProvider;
     private final WebClient openai;
     @Value("${openai.model:gpt-4o}")
     private String openaiModel;
@@ -25,16 +46,84 @@ public class AiController {
     @Value("${mcp.server.description:A server to get information on tariffs and tools to calculate Tariff}")
     private String mcpServerDescription;
 
-    public AiController(@Value("${openai.api.key}") String apiKey) {
+    // Whole reply for /api/chat; gap between events for /api/chat/stream
+    @Value("${openai.chat.timeout-seconds:120}")
+    private long chatTimeoutSeconds;
+    @Value("${openai.chat.stream-idle-timeout-seconds:60}")
+    private long streamIdleTimeoutSeconds;
+
+    // Chats are served from a bounded pool of OpenAI connections on Netty's event loop,
+    // so a slow model never holds a servlet thread
+    public AiController(@Value("${openai.api.key}") String apiKey,
+                        @Value("${openai.http.max-connections:100}") int maxConnections,
+                        @Value("${openai.http.pending-acquire-timeout-seconds:10}") long pendingAcquireTimeoutSeconds,
+                        @Value("${openai.http.connect-timeout-ms:5000}") int connectTimeoutMs) {
+        this.connectionProvider = ConnectionProvider.builder("openai")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(maxConnections * 2)
+            .pendingAcquireTimeout(Duration.ofSeconds(pendingAcquireTimeoutSeconds))
+            .maxIdleTime(Duration.ofSeconds(30))
+            .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs);
         this.openai = WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
             .baseUrl("https://api.openai.com/v1")
             .defaultHeader("Authorization", "Bearer " + apiKey)
             .defaultHeader("Content-Type", "application/json")
             .build();
     }
 
+    @PreDestroy
+    void shutdown() {
+        connectionProvider.dispose();
+    }
+
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public Object chat(@RequestBody Map<String, Object> body) {
+    public Mono<ResponseEntity<Object>> chat(@RequestBody Map<String, Object> body) {
+        return openai.post()
+            .uri("/responses")
+            .bodyValue(buildPayload(body, false))
+            .retrieve()
+            .bodyToMono(Object.class)
+            .timeout(Duration.ofSeconds(chatTimeoutSeconds))
+            .map(ResponseEntity::ok)
+            .onErrorResume(TimeoutException.class, e -> Mono.just(
+                ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body(Map.of("error", TIMEOUT_MESSAGE))))
+            // OpenAI answered with an error status, or couldn't be reached at all
+            .onErrorResume(WebClientException.class, e -> Mono.just(
+                ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body(Map.of("error", UNAVAILABLE_MESSAGE, "upstreamStatus", upstreamStatus(e)))));
+    }
+
+    // Relays the model's server-sent events as they arrive; a stream that stalls or fails ends with an "error" event
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> chatStream(@RequestBody Map<String, Object> body) {
+        return openai.post()
+            .uri("/responses")
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .bodyValue(buildPayload(body, true))
+            .retrieve()
+            .bodyToFlux(SSE_TYPE)
+            .timeout(Duration.ofSeconds(streamIdleTimeoutSeconds))
+            .map(event -> ServerSentEvent.<String>builder()
+                .event(event.event())
+                .data(event.data())
+                .build())
+            .onErrorResume(e -> Mono.just(
+                ServerSentEvent.<String>builder()
+                    .event("error")
+                    .data("{\"error\":\"" + (e instanceof TimeoutException ? TIMEOUT_MESSAGE : UNAVAILABLE_MESSAGE) + "\"}")
+                    .build()));
+    }
+
+    // Status OpenAI returned, 0 when the request never got a response
+    private static int upstreamStatus(WebClientException e) {
+        return e instanceof WebClientResponseException response ? response.getStatusCode().value() : 0;
+    }
+
+    private Map<String, Object> buildPayload(Map<String, Object> body, boolean stream) {
         String userMessage = String.valueOf(body.getOrDefault("message", ""));
 
         @SuppressWarnings("unchecked")
@@ -67,6 +156,9 @@ You are a helpful Tariff assistant. When the user asks for a product but does no
         Map<String, Object> payload = new HashMap<>();
         payload.put("model", openaiModel);
         payload.put("input", history);
+        if (stream) {
+            payload.put("stream", true);
+        }
         if (mcpServerUrl != null && !mcpServerUrl.isBlank()) {
             List<Map<String, Object>> tools = new ArrayList<>();
             Map<String, Object> mcp = new HashMap<>();
@@ -79,11 +171,6 @@ You are a helpful Tariff assistant. When the user asks for a product but does no
             payload.put("tools", tools);
         }
 
-        return openai.post()
-            .uri("/responses")
-            .bodyValue(payload)
-            .retrieve()
-            .bodyToMono(Object.class)
-            .block(); // or return Mono for reactive stacks
+        return payload;
     }
 }
\ No newline at end of file
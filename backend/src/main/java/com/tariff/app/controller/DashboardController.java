@@ -1,21 +1,45 @@
 package com.tariff.app.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.tariff.app.dto.DashboardDataResponse;
 import com.tariff.app.dto.ProductTariffData;
 import com.tariff.app.service.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/dashboard")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = DashboardController.NEXT_CURSOR_HEADER)
 public class DashboardController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final String CSV_HEADER =
+        "hts8,briefDescription,mfnAdValRate,mfnSpecificRate,mfnOtherRate,rateType,productCategory,countryCode\n";
+
     @Autowired
     private DashboardService dashboardService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tariff.products.max-page-size:5000}")
+    private int maxProductPageSize;
 
     @GetMapping("/data")
     public ResponseEntity<DashboardDataResponse> getDashboardData() {
@@ -31,6 +55,9 @@ public class DashboardController {
     public ResponseEntity<DashboardDataResponse> getCountrySpecificData(
             @PathVariable String countryCode,
             @RequestParam(required = false) String category) {
+        if (!dashboardService.isProductCategory(category)) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
             DashboardDataResponse data = dashboardService.getCountrySpecificData(countryCode, category);
             return ResponseEntity.ok(data);
@@ -39,16 +66,99 @@ public class DashboardController {
         }
     }
 
+    // Pages in HTS code order; a full page carries X-Next-Cursor, pass it as after for the next one.
+    // minRate/maxRate bound the ad valorem rate in percent
     @GetMapping("/products/{countryCode}")
-    public ResponseEntity<List<ProductTariffData>> getCountryProductTariffs(@PathVariable String countryCode) {
+    public ResponseEntity<List<ProductTariffData>> getCountryProductTariffs(
+            @PathVariable String countryCode,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + DashboardService.DEFAULT_PRODUCT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Double minRate,
+            @RequestParam(required = false) Double maxRate) {
+        if (limit < 1 || limit > maxProductPageSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (dashboardService.findCountryCode(countryCode).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
         try {
-            List<ProductTariffData> data = dashboardService.getCountryProductTariffs(countryCode);
-            return ResponseEntity.ok(data);
+            DashboardService.ProductPage page = dashboardService.getCountryProductTariffs(
+                countryCode, after, limit, category, minRate, maxRate);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.body(page.products());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    // Every matching product as format=csv or ndjson, streamed from a database cursor
+    @GetMapping("/products/{countryCode}/export")
+    public ResponseEntity<StreamingResponseBody> exportCountryProductTariffs(
+            @PathVariable String countryCode,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Double minRate,
+            @RequestParam(required = false) Double maxRate) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format) || !dashboardService.isProductCategory(category)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<String> code = dashboardService.findCountryCode(countryCode);
+        if (code.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ObjectWriter jsonWriter = objectMapper.writerFor(ProductTariffData.class);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(CSV_HEADER);
+            }
+            dashboardService.exportCountryProductTariffs(countryCode, category, minRate, maxRate, product -> {
+                try {
+                    writer.write(csv ? toCsvLine(product) : jsonWriter.writeValueAsString(product) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products-" + code.get() + (csv ? ".csv" : ".ndjson"))
+                        .build().toString())
+                .body(body);
+    }
+
+    private static String toCsvLine(ProductTariffData product) {
+        return String.join(",",
+                csvField(product.getHts8()),
+                csvField(product.getBriefDescription()),
+                csvField(product.getMfnAdValRate()),
+                csvField(product.getMfnSpecificRate()),
+                csvField(product.getMfnOtherRate()),
+                csvField(product.getRateType()),
+                csvField(product.getProductCategory()),
+                csvField(product.getCountryCode())) + "\n";
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Dashboard API is running");
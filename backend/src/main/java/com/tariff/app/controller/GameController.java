@@ -3,6 +3,8 @@ package com.tariff.app.controller;
 import com.tariff.app.dto.GameScoreRequest;
 import com.tariff.app.dto.GameScoreResponse;
 import com.tariff.app.dto.LeaderboardResponse;
+import com.tariff.app.dto.PlayerProfileResponse;
+import com.tariff.app.dto.RankResponse;
 import com.tariff.app.service.GameService;
 import com.tariff.app.service.JwtService;
 import jakarta.validation.Valid;
@@ -80,6 +82,28 @@ public class GameController {
         return ResponseEntity.ok(leaderboard);
     }
 
+    @GetMapping("/rank/{gameType}")
+    public ResponseEntity<RankResponse> getUserRank(
+            @PathVariable String gameType,
+            @RequestParam(defaultValue = "2") int neighbours,
+            @RequestHeader("Authorization") String token) {
+        
+        String username = JwtService.extractUsername(token.substring(7));
+        return gameService.getUserRank(username, gameType, neighbours)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/profile")
+    public ResponseEntity<PlayerProfileResponse> getUserProfile(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestHeader("Authorization") String token) {
+        
+        String username = JwtService.extractUsername(token.substring(7));
+        PlayerProfileResponse profile = gameService.getUserProfile(username, days);
+        return ResponseEntity.ok(profile);
+    }
+
     @GetMapping("/stats/total-points")
     public ResponseEntity<Long> getUserTotalPoints(
             @RequestHeader("Authorization") String token) {
@@ -1,13 +1,24 @@
 package com.tariff.app.controller;
 
+import com.tariff.app.dto.HtsSuggestion;
+import com.tariff.app.dto.TariffBatchCalculationRequest;
+import com.tariff.app.dto.TariffBatchCalculationResponse;
 import com.tariff.app.dto.TariffCalculationRequest;
 import com.tariff.app.dto.TariffCalculationResponse;
+import com.tariff.app.dto.TariffComparisonResponse;
 import com.tariff.app.dto.TariffInfo;
+import com.tariff.app.service.TariffQuoteCache;
+import com.tariff.app.service.TariffSearchService;
 import com.tariff.app.service.TariffService;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,16 +28,60 @@ import java.util.List;
 
 
 public class TariffController {
+
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 50;
     
     @Autowired
     private TariffService tariffService;
+
+    @Value("${tariff.batch.max-lines:10000}")
+    private int maxBatchLines;
+
+    @Value("${tariff.search.max-page-size:500}")
+    private int maxSearchPageSize;
+
+    @Value("${tariff.suggest.max-limit:50}")
+    private int maxSuggestLimit;
     
     @PostMapping("/calculate")
     public ResponseEntity<TariffCalculationResponse> calculateTariff(@RequestBody TariffCalculationRequest request) {
         TariffCalculationResponse response = tariffService.calculateTariff(request);
         return ResponseEntity.ok(response);
     }
-    
+
+    @PostMapping("/calculate/batch")
+    public ResponseEntity<TariffBatchCalculationResponse> calculateTariffBatch(@RequestBody TariffBatchCalculationRequest request) {
+        List<TariffCalculationRequest> lines = request.getLines();
+        if (lines == null || lines.isEmpty() || lines.size() > maxBatchLines) {
+            return ResponseEntity.badRequest().build();
+        }
+        for (TariffCalculationRequest line : lines) {
+            if (!TariffService.isValidLine(line)) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        TariffBatchCalculationResponse response = tariffService.calculateTariffBatch(lines);
+        return ResponseEntity.ok(response);
+    }
+
+    // Streams one response line per request line, with an error line for any line missing hts8 or itemValue;
+    // long inputs may need spring.mvc.async.request-timeout raised
+    @PostMapping(value = "/calculate/stream",
+                 consumes = MediaType.APPLICATION_NDJSON_VALUE,
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TariffCalculationResponse> calculateTariffStream(HttpServletRequest request) throws IOException {
+        return tariffService.calculateTariffStream(request.getInputStream());
+    }
+
+    @GetMapping("/compare")
+    public ResponseEntity<TariffComparisonResponse> compareLandedCost(@RequestParam String hts8,
+                                                                      @RequestParam String origin,
+                                                                      @RequestParam Double value,
+                                                                      @RequestParam(required = false) Double quantity,
+                                                                      @RequestParam(required = false) String unit) {
+        TariffComparisonResponse response = tariffService.compareLandedCost(hts8, origin, value, quantity, unit);
+        return ResponseEntity.ok(response);
+    }
 
     @GetMapping("/info")        
     public ResponseEntity<TariffInfo> getTariffInfo(@RequestParam String htsCode) {
@@ -40,10 +95,43 @@ public class TariffController {
         }
     }
     
+    // country defaults to US, "all" searches every schedule; total match count is in X-Total-Count.
+    // Every match is returned unless page or size is given; size then defaults to 50.
     @GetMapping("/search")
-    public ResponseEntity<List<TariffInfo>> searchTariffs(@RequestParam String q) {
-        List<TariffInfo> results = tariffService.searchTariffs(q);
-        return ResponseEntity.ok(results);
+    public ResponseEntity<List<TariffInfo>> searchTariffs(@RequestParam String q,
+                                                          @RequestParam(required = false) String country,
+                                                          @RequestParam(required = false) Integer page,
+                                                          @RequestParam(required = false) Integer size) {
+        TariffSearchService.SearchPage results;
+        if (page == null && size == null) {
+            results = tariffService.searchTariffs(q, country, 0, Integer.MAX_VALUE);
+        } else {
+            int pageNumber = page == null ? 0 : page;
+            int pageSize = size == null ? DEFAULT_SEARCH_PAGE_SIZE : size;
+            if (pageNumber < 0 || pageSize < 1 || pageSize > maxSearchPageSize) {
+                return ResponseEntity.badRequest().build();
+            }
+            results = tariffService.searchTariffs(q, country, pageNumber, pageSize);
+        }
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(results.totalResults()))
+                .body(results.results());
+    }
+
+    // Best matching HTS8 codes for a product description, best first
+    @GetMapping("/suggest")
+    public ResponseEntity<List<HtsSuggestion>> suggestHtsCodes(@RequestParam String q,
+                                                               @RequestParam(defaultValue = "5") int limit) {
+        if (limit < 1 || limit > maxSuggestLimit) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tariffService.suggestHtsCodes(q, limit));
+    }
+
+    // Hit/miss counters for the quote rate cache
+    @GetMapping("/quote-cache/stats")
+    public ResponseEntity<TariffQuoteCache.Stats> getQuoteCacheStats() {
+        return ResponseEntity.ok(tariffService.getQuoteCacheStats());
     }
 
     @GetMapping("/health")
@@ -0,0 +1,85 @@
+package com.tariff.app.dto;
+
+/**
+ * Aggregated rates for one HTS chapter of a tariff schedule, as returned by the
+ * statistics queries in TariffRepository. Rates are percentages.
+ */
+public class ChapterRateStatistics {
+    private String chapter;
+    private Long rateCount;
+    private Double rateSum;
+    private Double minRate;
+    private Double maxRate;
+    private Long lowRateCount;
+    private Long highRateCount;
+
+    public ChapterRateStatistics() {}
+
+    public ChapterRateStatistics(String chapter, Long rateCount, Double rateSum, Double minRate,
+                                 Double maxRate, Long lowRateCount, Long highRateCount) {
+        this.chapter = chapter;
+        this.rateCount = rateCount;
+        this.rateSum = rateSum;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.lowRateCount = lowRateCount;
+        this.highRateCount = highRateCount;
+    }
+
+    // Getters and Setters
+    public String getChapter() {
+        return chapter;
+    }
+
+    public void setChapter(String chapter) {
+        this.chapter = chapter;
+    }
+
+    public Long getRateCount() {
+        return rateCount;
+    }
+
+    public void setRateCount(Long rateCount) {
+        this.rateCount = rateCount;
+    }
+
+    public Double getRateSum() {
+        return rateSum;
+    }
+
+    public void setRateSum(Double rateSum) {
+        this.rateSum = rateSum;
+    }
+
+    public Double getMinRate() {
+        return minRate;
+    }
+
+    public void setMinRate(Double minRate) {
+        this.minRate = minRate;
+    }
+
+    public Double getMaxRate() {
+        return maxRate;
+    }
+
+    public void setMaxRate(Double maxRate) {
+        this.maxRate = maxRate;
+    }
+
+    public Long getLowRateCount() {
+        return lowRateCount;
+    }
+
+    public void setLowRateCount(Long lowRateCount) {
+        this.lowRateCount = lowRateCount;
+    }
+
+    public Long getHighRateCount() {
+        return highRateCount;
+    }
+
+    public void setHighRateCount(Long highRateCount) {
+        this.highRateCount = highRateCount;
+    }
+}
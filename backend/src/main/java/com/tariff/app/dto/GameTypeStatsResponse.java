@@ -0,0 +1,73 @@
+package com.tariff.app.dto;
+
+import java.time.LocalDateTime;
+
+public class GameTypeStatsResponse {
+    private String gameType;
+    private Long gamesPlayed;
+    private Double averageScore;
+    private Integer bestScore;
+    private Long pointsEarned;
+    private Long perfectCount;
+    private LocalDateTime lastPlayedAt;
+
+    // Constructors
+    public GameTypeStatsResponse() {}
+
+    // Getters and Setters
+    public String getGameType() {
+        return gameType;
+    }
+
+    public void setGameType(String gameType) {
+        this.gameType = gameType;
+    }
+
+    public Long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public void setGamesPlayed(Long gamesPlayed) {
+        this.gamesPlayed = gamesPlayed;
+    }
+
+    public Double getAverageScore() {
+        return averageScore;
+    }
+
+    public void setAverageScore(Double averageScore) {
+        this.averageScore = averageScore;
+    }
+
+    public Integer getBestScore() {
+        return bestScore;
+    }
+
+    public void setBestScore(Integer bestScore) {
+        this.bestScore = bestScore;
+    }
+
+    public Long getPointsEarned() {
+        return pointsEarned;
+    }
+
+    public void setPointsEarned(Long pointsEarned) {
+        this.pointsEarned = pointsEarned;
+    }
+
+    public Long getPerfectCount() {
+        return perfectCount;
+    }
+
+    public void setPerfectCount(Long perfectCount) {
+        this.perfectCount = perfectCount;
+    }
+
+    public LocalDateTime getLastPlayedAt() {
+        return lastPlayedAt;
+    }
+
+    public void setLastPlayedAt(LocalDateTime lastPlayedAt) {
+        this.lastPlayedAt = lastPlayedAt;
+    }
+}
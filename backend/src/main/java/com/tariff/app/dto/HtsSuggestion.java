@@ -0,0 +1,42 @@
+package com.tariff.app.dto;
+
+public class HtsSuggestion {
+    private String hts8;
+    private String briefDescription;
+    private Double score;
+
+    // Default constructor
+    public HtsSuggestion() {}
+
+    // Constructor with parameters
+    public HtsSuggestion(String hts8, String briefDescription, Double score) {
+        this.hts8 = hts8;
+        this.briefDescription = briefDescription;
+        this.score = score;
+    }
+
+    // Getters and setters
+    public String getHts8() {
+        return hts8;
+    }
+
+    public void setHts8(String hts8) {
+        this.hts8 = hts8;
+    }
+
+    public String getBriefDescription() {
+        return briefDescription;
+    }
+
+    public void setBriefDescription(String briefDescription) {
+        this.briefDescription = briefDescription;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+}
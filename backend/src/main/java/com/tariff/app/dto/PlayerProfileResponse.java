@@ -0,0 +1,59 @@
+package com.tariff.app.dto;
+
+import java.util.List;
+
+/**
+ * Everything the profile page shows for one player, so it can load with a
+ * single request instead of one per figure.
+ */
+public class PlayerProfileResponse {
+    private String username;
+    private Long totalPoints;
+    private Long gamesPlayed;
+    private List<GameTypeStatsResponse> gameTypes;
+    private List<GameScoreResponse> recentScores;
+
+    // Constructors
+    public PlayerProfileResponse() {}
+
+    // Getters and Setters
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getTotalPoints() {
+        return totalPoints;
+    }
+
+    public void setTotalPoints(Long totalPoints) {
+        this.totalPoints = totalPoints;
+    }
+
+    public Long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public void setGamesPlayed(Long gamesPlayed) {
+        this.gamesPlayed = gamesPlayed;
+    }
+
+    public List<GameTypeStatsResponse> getGameTypes() {
+        return gameTypes;
+    }
+
+    public void setGameTypes(List<GameTypeStatsResponse> gameTypes) {
+        this.gameTypes = gameTypes;
+    }
+
+    public List<GameScoreResponse> getRecentScores() {
+        return recentScores;
+    }
+
+    public void setRecentScores(List<GameScoreResponse> recentScores) {
+        this.recentScores = recentScores;
+    }
+}
@@ -0,0 +1,87 @@
+package com.tariff.app.dto;
+
+import java.util.List;
+
+/**
+ * Where a player's best score in one game type places them. Rank counts the
+ * scores strictly higher, so equal scores share a rank; percentile is the
+ * share of scores strictly lower.
+ */
+public class RankResponse {
+    private String username;
+    private String gameType;
+    private Integer score;
+    private Long rank;
+    private Long totalScores;
+    private Double percentile;
+    private List<LeaderboardResponse> above; // best first, ending just above the player
+    private List<LeaderboardResponse> below; // best first, starting just below the player
+
+    // Constructors
+    public RankResponse() {}
+
+    // Getters and Setters
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getGameType() {
+        return gameType;
+    }
+
+    public void setGameType(String gameType) {
+        this.gameType = gameType;
+    }
+
+    public Integer getScore() {
+        return score;
+    }
+
+    public void setScore(Integer score) {
+        this.score = score;
+    }
+
+    public Long getRank() {
+        return rank;
+    }
+
+    public void setRank(Long rank) {
+        this.rank = rank;
+    }
+
+    public Long getTotalScores() {
+        return totalScores;
+    }
+
+    public void setTotalScores(Long totalScores) {
+        this.totalScores = totalScores;
+    }
+
+    public Double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(Double percentile) {
+        this.percentile = percentile;
+    }
+
+    public List<LeaderboardResponse> getAbove() {
+        return above;
+    }
+
+    public void setAbove(List<LeaderboardResponse> above) {
+        this.above = above;
+    }
+
+    public List<LeaderboardResponse> getBelow() {
+        return below;
+    }
+
+    public void setBelow(List<LeaderboardResponse> below) {
+        this.below = below;
+    }
+}
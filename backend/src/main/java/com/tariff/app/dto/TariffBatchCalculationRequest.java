@@ -0,0 +1,24 @@
+package com.tariff.app.dto;
+
+import java.util.List;
+
+public class TariffBatchCalculationRequest {
+    private List<TariffCalculationRequest> lines;
+
+    // Default constructor
+    public TariffBatchCalculationRequest() {}
+
+    // Constructor with parameters
+    public TariffBatchCalculationRequest(List<TariffCalculationRequest> lines) {
+        this.lines = lines;
+    }
+
+    // Getters and setters
+    public List<TariffCalculationRequest> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<TariffCalculationRequest> lines) {
+        this.lines = lines;
+    }
+}
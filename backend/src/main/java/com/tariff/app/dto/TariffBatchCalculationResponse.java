@@ -0,0 +1,75 @@
+package com.tariff.app.dto;
+
+import java.util.List;
+
+public class TariffBatchCalculationResponse {
+    private List<TariffCalculationResponse> lines;
+    private int lineCount;
+    private int linesFound;
+    private Double totalItemValue;
+    private Double totalTariffAmount;
+    private Double totalCost;
+
+    // Default constructor
+    public TariffBatchCalculationResponse() {}
+
+    // Constructor with parameters
+    public TariffBatchCalculationResponse(List<TariffCalculationResponse> lines, int lineCount, int linesFound,
+                                          Double totalItemValue, Double totalTariffAmount, Double totalCost) {
+        this.lines = lines;
+        this.lineCount = lineCount;
+        this.linesFound = linesFound;
+        this.totalItemValue = totalItemValue;
+        this.totalTariffAmount = totalTariffAmount;
+        this.totalCost = totalCost;
+    }
+
+    // Getters and setters
+    public List<TariffCalculationResponse> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<TariffCalculationResponse> lines) {
+        this.lines = lines;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(int lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public int getLinesFound() {
+        return linesFound;
+    }
+
+    public void setLinesFound(int linesFound) {
+        this.linesFound = linesFound;
+    }
+
+    public Double getTotalItemValue() {
+        return totalItemValue;
+    }
+
+    public void setTotalItemValue(Double totalItemValue) {
+        this.totalItemValue = totalItemValue;
+    }
+
+    public Double getTotalTariffAmount() {
+        return totalTariffAmount;
+    }
+
+    public void setTotalTariffAmount(Double totalTariffAmount) {
+        this.totalTariffAmount = totalTariffAmount;
+    }
+
+    public Double getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(Double totalCost) {
+        this.totalCost = totalCost;
+    }
+}
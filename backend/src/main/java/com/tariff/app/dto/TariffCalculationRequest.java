@@ -4,6 +4,8 @@ public class TariffCalculationRequest {
     private String hts8;
     private Double itemValue;
     private Double itemQuantity;
+    // Unit of itemQuantity, e.g. "kg"; null means the unit the specific rate is quoted in
+    private String quantityUnit;
     private String originCountry;
     private String countryOfArrival;
     private String modeOfTransport;
@@ -59,6 +61,14 @@ public class TariffCalculationRequest {
         this.itemQuantity = itemQuantity;
     }
 
+    public String getQuantityUnit() {
+        return quantityUnit;
+    }
+
+    public void setQuantityUnit(String quantityUnit) {
+        this.quantityUnit = quantityUnit;
+    }
+
     public String getCountryOfArrival() {
         return countryOfArrival;
     }
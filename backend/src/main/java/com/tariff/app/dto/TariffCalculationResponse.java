@@ -1,4 +1,5 @@
 package com.tariff.app.dto;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.ArrayList;
 
 public class TariffCalculationResponse {
@@ -13,9 +14,15 @@ public class TariffCalculationResponse {
     private Double totalCost;
     private boolean tariffFound;
     private Double itemQuantity;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String quantityUnit;
     private String originCountry;
     private Double totalTariffPercentage;
     private ArrayList<String> dutyTypes;
+    // Set for a request line that couldn't be quoted, or whose specific duty
+    // was left out of tariffAmount for want of a quantity in the rate's unit
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
     
     // Default constructor
     public TariffCalculationResponse() {}
@@ -112,6 +119,14 @@ public class TariffCalculationResponse {
         this.itemQuantity = itemQuantity;
     }
 
+    public String getQuantityUnit() {
+        return quantityUnit;
+    }
+
+    public void setQuantityUnit(String quantityUnit) {
+        this.quantityUnit = quantityUnit;
+    }
+
     public String getOriginCountry() {
         return originCountry;
     }
@@ -151,5 +166,13 @@ public class TariffCalculationResponse {
     public void setDutyTypes(ArrayList<String> dutyTypes) {
         this.dutyTypes = dutyTypes;
     }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
 }
 
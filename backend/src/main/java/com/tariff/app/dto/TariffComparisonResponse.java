@@ -0,0 +1,96 @@
+package com.tariff.app.dto;
+
+import java.util.List;
+
+public class TariffComparisonResponse {
+    private String hts8;
+    private String originCountry;
+    private Double itemValue;
+    private List<DestinationQuote> quotes;
+    private List<String> unavailableIn;
+
+    // Default constructor
+    public TariffComparisonResponse() {}
+
+    // Constructor with parameters
+    public TariffComparisonResponse(String hts8, String originCountry, Double itemValue,
+                                    List<DestinationQuote> quotes, List<String> unavailableIn) {
+        this.hts8 = hts8;
+        this.originCountry = originCountry;
+        this.itemValue = itemValue;
+        this.quotes = quotes;
+        this.unavailableIn = unavailableIn;
+    }
+
+    // Getters and setters
+    public String getHts8() {
+        return hts8;
+    }
+
+    public void setHts8(String hts8) {
+        this.hts8 = hts8;
+    }
+
+    public String getOriginCountry() {
+        return originCountry;
+    }
+
+    public void setOriginCountry(String originCountry) {
+        this.originCountry = originCountry;
+    }
+
+    public Double getItemValue() {
+        return itemValue;
+    }
+
+    public void setItemValue(Double itemValue) {
+        this.itemValue = itemValue;
+    }
+
+    public List<DestinationQuote> getQuotes() {
+        return quotes;
+    }
+
+    public void setQuotes(List<DestinationQuote> quotes) {
+        this.quotes = quotes;
+    }
+
+    public List<String> getUnavailableIn() {
+        return unavailableIn;
+    }
+
+    public void setUnavailableIn(List<String> unavailableIn) {
+        this.unavailableIn = unavailableIn;
+    }
+
+    // Landed cost in one arrival country
+    public static class DestinationQuote {
+        private int rank;
+        private String countryOfArrival;
+        private String countryName;
+        private TariffCalculationResponse calculation;
+
+        public DestinationQuote() {}
+
+        public DestinationQuote(int rank, String countryOfArrival, String countryName,
+                                TariffCalculationResponse calculation) {
+            this.rank = rank;
+            this.countryOfArrival = countryOfArrival;
+            this.countryName = countryName;
+            this.calculation = calculation;
+        }
+
+        // Getters and setters
+        public int getRank() { return rank; }
+        public void setRank(int rank) { this.rank = rank; }
+
+        public String getCountryOfArrival() { return countryOfArrival; }
+        public void setCountryOfArrival(String countryOfArrival) { this.countryOfArrival = countryOfArrival; }
+
+        public String getCountryName() { return countryName; }
+        public void setCountryName(String countryName) { this.countryName = countryName; }
+
+        public TariffCalculationResponse getCalculation() { return calculation; }
+        public void setCalculation(TariffCalculationResponse calculation) { this.calculation = calculation; }
+    }
+}
@@ -7,6 +7,7 @@ public class TariffInfo {
     private Double mfnAdValRate;
     private Double mfnSpecificRate;
     private Double mfnOtherRate;
+    private String countryCode;
 
     public TariffInfo(String hts8, String briefDescription, String mfnTextRate, Double mfnAdValRate, Double mfnSpecificRate, Double mfnOtherRate) {
         this.hts8 = hts8;
@@ -41,6 +42,10 @@ public class TariffInfo {
     public Double getMfnOtherRate() {
         return mfnOtherRate;
     }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
     
     public void setHts8(String hts8) {
         this.hts8 = hts8;
@@ -65,4 +70,8 @@ public class TariffInfo {
     public void setMfnOtherRate(Double mfnOtherRate) {
         this.mfnOtherRate = mfnOtherRate;
     }
+
+    public void setCountryCode(String countryCode) {
+        this.countryCode = countryCode;
+    }
 }
@@ -1,9 +1,10 @@
 package com.tariff.app.entity;
 
+import com.tariff.app.schedule.RateExpression;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "tariffrates_australia")
+@Table(name = "tariffrates_australia", indexes = @Index(name = "idx_tariffrates_australia_hts8_id", columnList = "hts8, id"))
 public class AustraliaTariff implements Tariff {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,6 +20,10 @@ public class AustraliaTariff implements Tariff {
     @Column(name = "mfn_text_rate")
     private String mfnTextRate;
 
+    // Parsed once on load, so quotes don't re-parse the text
+    @Transient
+    private RateExpression mfnRate = RateExpression.NONE;
+
     @Column(name = "mfn_ad_val_rate")
     private Double mfnAdValRate;
 
@@ -89,9 +94,9 @@ public class AustraliaTariff implements Tariff {
     }
 
     // Getters and setters
-    // public Long getId() {
-    // return id;
-    // }
+    public Long getId() {
+        return id;
+    }
 
     // public void setId(Long id) {
     // this.id = id;
@@ -114,18 +119,21 @@ public class AustraliaTariff implements Tariff {
     }
 
     public String getMfnTextRate() {
-        String[] textRate = mfnTextRate.split(" ");
-        String textRateString = "";
-        if (textRate.length > 1) {
-            textRateString = textRate[1];
-        } else {
-            textRateString = "";
-        }
-        return textRateString;
+        return mfnRate.getDisplayText();
     }
 
     public void setMfnTextRate(String mfnTextRate) {
         this.mfnTextRate = mfnTextRate;
+        this.mfnRate = RateExpression.parse(mfnTextRate);
+    }
+
+    public RateExpression getMfnRate() {
+        return mfnRate;
+    }
+
+    @PostLoad
+    void parseMfnTextRate() {
+        mfnRate = RateExpression.parse(mfnTextRate);
     }
 
     public Double getMfnAdValRate() {
@@ -1,14 +1,18 @@
 package com.tariff.app.entity;
 
+import com.tariff.app.schedule.RateExpression;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
 @Entity
-@Table(name = "tariffrates_canada")
+@Table(name = "tariffrates_canada", indexes = @Index(name = "idx_tariffrates_canada_hts8_id", columnList = "hts8, id"))
 public class CanadaTariff implements Tariff {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,6 +28,10 @@ public class CanadaTariff implements Tariff {
     @Column(name = "mfn_text_rate")
     private String mfnTextRate;
 
+    // Parsed once on load, so quotes don't re-parse the text
+    @Transient
+    private RateExpression mfnRate = RateExpression.NONE;
+
     @Column(name = "mfn_ad_val_rate")
     private Double mfnAdValRate;
 
@@ -94,9 +102,9 @@ public class CanadaTariff implements Tariff {
     }
 
     // Getters and setters
-    // public Long getId() {
-    // return id;
-    // }
+    public Long getId() {
+        return id;
+    }
 
     // public void setId(Long id) {
     // this.id = id;
@@ -119,18 +127,21 @@ public class CanadaTariff implements Tariff {
     }
 
     public String getMfnTextRate() {
-        String[] textRate = mfnTextRate.split(" ");
-        String textRateString = "";
-        if (textRate.length > 1) {
-            textRateString = textRate[1];
-        } else {
-            textRateString = "";
-        }
-        return textRateString;
+        return mfnRate.getDisplayText();
     }
 
     public void setMfnTextRate(String mfnTextRate) {
         this.mfnTextRate = mfnTextRate;
+        this.mfnRate = RateExpression.parse(mfnTextRate);
+    }
+
+    public RateExpression getMfnRate() {
+        return mfnRate;
+    }
+
+    @PostLoad
+    void parseMfnTextRate() {
+        mfnRate = RateExpression.parse(mfnTextRate);
     }
 
     public Double getMfnAdValRate() {
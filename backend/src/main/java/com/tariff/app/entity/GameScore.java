@@ -15,9 +15,9 @@ import java.util.UUID;
 @Table(name = "game_scores", 
        indexes = {
            @Index(name = "idx_game_scores_user_id", columnList = "user_id"),
-           @Index(name = "idx_game_scores_game_type", columnList = "game_type"),
            @Index(name = "idx_game_scores_created_at", columnList = "created_at"),
-           @Index(name = "idx_game_scores_score", columnList = "score DESC")
+           @Index(name = "idx_game_scores_score_created_at", columnList = "score DESC, created_at"),
+           @Index(name = "idx_game_scores_game_type_score", columnList = "game_type, score DESC, created_at")
        })
 public class GameScore {
     @Id
@@ -1,9 +1,13 @@
 package com.tariff.app.entity;
 
+import com.tariff.app.schedule.RateExpression;
+
 /**
  * Common interface for all tariff entities
  */
 public interface Tariff {
+
+    Long getId();
     
     String getHts8();
     void setHts8(String hts8);
@@ -13,6 +17,9 @@ public interface Tariff {
     
     String getMfnTextRate();
     void setMfnTextRate(String mfnTextRate);
+
+    // mfn_text_rate parsed into its parts
+    RateExpression getMfnRate();
     
     Double getMfnAdValRate();
     void setMfnAdValRate(Double mfnAdValRate);
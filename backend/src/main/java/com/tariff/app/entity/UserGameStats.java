@@ -0,0 +1,152 @@
+package com.tariff.app.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running totals of one user's games of one type, kept in step with
+ * game_scores by GameStatsService in the same transaction as each write, so
+ * the stats endpoints read a row instead of aggregating every game.
+ */
+@Entity
+@Table(name = "user_game_stats")
+public class UserGameStats {
+    @EmbeddedId
+    private UserGameStatsId id;
+
+    @MapsId("userId")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_user_game_stats_user"))
+    private User user;
+
+    @Column(name = "games_played", nullable = false)
+    private Long gamesPlayed = 0L;
+
+    @Column(name = "score_sum", nullable = false)
+    private Long scoreSum = 0L;
+
+    @Column(name = "min_score")
+    private Integer minScore;
+
+    @Column(name = "best_score")
+    private Integer bestScore;
+
+    @Column(name = "points_earned", nullable = false)
+    private Long pointsEarned = 0L;
+
+    @Column(name = "perfect_count", nullable = false)
+    private Long perfectCount = 0L;
+
+    @Column(name = "last_played_at")
+    private LocalDateTime lastPlayedAt;
+
+    // Constructors
+    public UserGameStats() {}
+
+    public UserGameStats(User user, String gameType) {
+        this.id = new UserGameStatsId(user.getId(), gameType);
+        this.user = user;
+    }
+
+    /**
+     * Adds one saved game to the totals.
+     */
+    public void record(GameScore gameScore) {
+        int score = gameScore.getScore();
+        gamesPlayed++;
+        scoreSum += score;
+        minScore = minScore == null ? score : Math.min(minScore, score);
+        bestScore = bestScore == null ? score : Math.max(bestScore, score);
+        if (gameScore.getPointsEarned() != null) {
+            pointsEarned += gameScore.getPointsEarned();
+        }
+        if (Boolean.TRUE.equals(gameScore.getPerfectScore())) {
+            perfectCount++;
+        }
+        if (lastPlayedAt == null || gameScore.getCreatedAt().isAfter(lastPlayedAt)) {
+            lastPlayedAt = gameScore.getCreatedAt();
+        }
+    }
+
+    public Double getAverageScore() {
+        return gamesPlayed == 0 ? 0.0 : (double) scoreSum / gamesPlayed;
+    }
+
+    // Getters and Setters
+    public UserGameStatsId getId() {
+        return id;
+    }
+
+    public void setId(UserGameStatsId id) {
+        this.id = id;
+    }
+
+    public String getGameType() {
+        return id.getGameType();
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public void setGamesPlayed(Long gamesPlayed) {
+        this.gamesPlayed = gamesPlayed;
+    }
+
+    public Long getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(Long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public Integer getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(Integer minScore) {
+        this.minScore = minScore;
+    }
+
+    public Integer getBestScore() {
+        return bestScore;
+    }
+
+    public void setBestScore(Integer bestScore) {
+        this.bestScore = bestScore;
+    }
+
+    public Long getPointsEarned() {
+        return pointsEarned;
+    }
+
+    public void setPointsEarned(Long pointsEarned) {
+        this.pointsEarned = pointsEarned;
+    }
+
+    public Long getPerfectCount() {
+        return perfectCount;
+    }
+
+    public void setPerfectCount(Long perfectCount) {
+        this.perfectCount = perfectCount;
+    }
+
+    public LocalDateTime getLastPlayedAt() {
+        return lastPlayedAt;
+    }
+
+    public void setLastPlayedAt(LocalDateTime lastPlayedAt) {
+        this.lastPlayedAt = lastPlayedAt;
+    }
+}
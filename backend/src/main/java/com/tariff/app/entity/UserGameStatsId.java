@@ -0,0 +1,54 @@
+package com.tariff.app.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+@Embeddable
+public class UserGameStatsId implements Serializable {
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "game_type", nullable = false, length = 50)
+    private String gameType;
+
+    // Constructors
+    public UserGameStatsId() {}
+
+    public UserGameStatsId(UUID userId, String gameType) {
+        this.userId = userId;
+        this.gameType = gameType;
+    }
+
+    // Getters and Setters
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getGameType() {
+        return gameType;
+    }
+
+    public void setGameType(String gameType) {
+        this.gameType = gameType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserGameStatsId other)) return false;
+        return Objects.equals(userId, other.userId) && Objects.equals(gameType, other.gameType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, gameType);
+    }
+}
@@ -0,0 +1,19 @@
+package com.tariff.app.leaderboard;
+
+import java.util.List;
+
+/**
+ * Published by GameService inside the transaction that saves or deletes
+ * scores. Listeners keeping in-memory state should run after commit, so a
+ * rolled back write never shows up.
+ */
+public record GameScoresChangedEvent(List<LeaderboardEntry> saved, List<LeaderboardEntry> deleted) {
+
+    public static GameScoresChangedEvent saved(List<LeaderboardEntry> entries) {
+        return new GameScoresChangedEvent(entries, List.of());
+    }
+
+    public static GameScoresChangedEvent deleted(List<LeaderboardEntry> entries) {
+        return new GameScoresChangedEvent(List.of(), entries);
+    }
+}
@@ -0,0 +1,20 @@
+package com.tariff.app.leaderboard;
+
+import com.tariff.app.entity.GameScore;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What a leaderboard shows of one game score, copied out of the entity so it
+ * can be kept in memory without holding a persistence context or a lazy user.
+ */
+public record LeaderboardEntry(UUID scoreId, UUID userId, String username, String gameType, int score,
+                               Integer pointsEarned, Boolean perfectScore, LocalDateTime createdAt) {
+
+    public static LeaderboardEntry of(GameScore gameScore) {
+        return new LeaderboardEntry(gameScore.getId(), gameScore.getUser().getId(), gameScore.getUser().getUsername(),
+                gameScore.getGameType(), gameScore.getScore(), gameScore.getPointsEarned(),
+                gameScore.getPerfectScore(), gameScore.getCreatedAt());
+    }
+}
@@ -0,0 +1,95 @@
+package com.tariff.app.leaderboard;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * How many games of one type ended on each score, kept as a Fenwick tree so
+ * that counting the scores above or below a value costs O(log maxScore)
+ * rather than a scan of every game.
+ *
+ * Buckets start at 0..10000, the range the games report, and double when a
+ * higher score arrives, up to MAX_BUCKETS; scores beyond that share the top
+ * bucket and so tie with each other. Scores are validated as non-negative,
+ * so anything below zero is counted as zero.
+ */
+public final class ScoreDistribution {
+
+    private static final int INITIAL_BUCKETS = 10001;
+    private static final int MAX_BUCKETS = 1 << 20;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] counts = new long[INITIAL_BUCKETS];
+    private long[] tree = new long[INITIAL_BUCKETS + 1];
+    private long total;
+
+    public void add(int score, long count) {
+        lock.lock();
+        try {
+            int bucket = bucketOf(score);
+            if (bucket >= counts.length) {
+                grow(bucket);
+            }
+            counts[bucket] += count;
+            total += count;
+            for (int i = bucket + 1; i < tree.length; i += i & -i) {
+                tree[i] += count;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(int score) {
+        add(score, -1);
+    }
+
+    /**
+     * The number of games above, below and in total, read together so a
+     * concurrent write can't make them disagree.
+     */
+    public Counts countsAround(int score) {
+        lock.lock();
+        try {
+            int bucket = bucketOf(score);
+            long atOrBelow = countAtOrBelow(bucket);
+            long below = bucket == 0 ? 0 : countAtOrBelow(bucket - 1);
+            return new Counts(total - atOrBelow, below, total);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int bucketOf(int score) {
+        return Math.min(Math.max(score, 0), MAX_BUCKETS - 1);
+    }
+
+    private long countAtOrBelow(int bucket) {
+        long sum = 0;
+        for (int i = Math.min(bucket + 1, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void grow(int bucket) {
+        int size = counts.length;
+        while (size <= bucket) {
+            size *= 2;
+        }
+        size = Math.min(size, MAX_BUCKETS);
+        counts = Arrays.copyOf(counts, size);
+        // Rebuild in O(size): each node passes its sum on to its parent
+        tree = new long[size + 1];
+        for (int i = 1; i <= size; i++) {
+            tree[i] += counts[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    public record Counts(long above, long below, long total) {
+    }
+}
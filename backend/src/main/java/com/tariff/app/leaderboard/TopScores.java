@@ -0,0 +1,135 @@
+package com.tariff.app.leaderboard;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * The best capacity scores of one leaderboard, best first: highest score,
+ * then the earlier of equal scores.
+ *
+ * Writers keep a sorted set bounded to capacity under a lock and publish an
+ * immutable copy of it, so reads take no lock and cost O(limit) however many
+ * scores exist. Offering the same score twice is a no-op, and scores removed
+ * while a refill is loading are remembered until it finishes, so a refill
+ * from the database can overlap with live updates without bringing back a
+ * deleted score.
+ */
+public final class TopScores {
+
+    public static final Comparator<LeaderboardEntry> RANKING = Comparator
+            .comparingInt(LeaderboardEntry::score).reversed()
+            .thenComparing(LeaderboardEntry::createdAt, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(LeaderboardEntry::scoreId);
+
+    private final int capacity;
+    private final TreeSet<LeaderboardEntry> entries = new TreeSet<>(RANKING);
+    private final Map<UUID, LeaderboardEntry> byScoreId = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Scores removed since the oldest running refill started; its query may still have returned them
+    private final Set<UUID> removedDuringRefill = new HashSet<>();
+    private int refillsRunning;
+    private volatile List<LeaderboardEntry> snapshot = List.of();
+
+    public TopScores(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void offer(Collection<LeaderboardEntry> candidates) {
+        lock.lock();
+        try {
+            boolean changed = false;
+            for (LeaderboardEntry candidate : candidates) {
+                if (byScoreId.containsKey(candidate.scoreId()) || removedDuringRefill.contains(candidate.scoreId())) {
+                    continue;
+                }
+                if (entries.size() >= capacity && RANKING.compare(candidate, entries.last()) >= 0) {
+                    continue;
+                }
+                entries.add(candidate);
+                byScoreId.put(candidate.scoreId(), candidate);
+                if (entries.size() > capacity) {
+                    byScoreId.remove(entries.pollLast().scoreId());
+                }
+                changed = true;
+            }
+            if (changed) {
+                publish();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the given scores; true if any of them was on the board, which
+     * leaves it short of entries until refilled.
+     */
+    public boolean remove(Collection<LeaderboardEntry> removed) {
+        lock.lock();
+        try {
+            boolean changed = false;
+            for (LeaderboardEntry entry : removed) {
+                if (refillsRunning > 0) {
+                    removedDuringRefill.add(entry.scoreId());
+                }
+                LeaderboardEntry current = byScoreId.remove(entry.scoreId());
+                if (current != null) {
+                    entries.remove(current);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                publish();
+            }
+            return changed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Offers the best scores from the loader, which queries the database
+     * without holding the board's lock. Scores removed after the refill
+     * started are skipped, since the query may have read them before their
+     * delete committed.
+     */
+    public void refill(Supplier<List<LeaderboardEntry>> loader) {
+        lock.lock();
+        try {
+            refillsRunning++;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            offer(loader.get());
+        } finally {
+            lock.lock();
+            try {
+                if (--refillsRunning == 0) {
+                    removedDuringRefill.clear();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public List<LeaderboardEntry> top(int limit) {
+        List<LeaderboardEntry> current = snapshot;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    private void publish() {
+        snapshot = List.copyOf(entries);
+    }
+}
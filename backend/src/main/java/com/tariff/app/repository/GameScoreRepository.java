@@ -8,9 +8,11 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -24,38 +26,44 @@ public interface GameScoreRepository extends JpaRepository<GameScore, UUID> {
     List<GameScore> findByUserAndGameTypeOrderByCreatedAtDesc(User user, String gameType);
     
     // Find best score for a specific user and game type
-    @Query("SELECT gs FROM GameScore gs WHERE gs.user = :user AND gs.gameType = :gameType ORDER BY gs.score DESC")
-    Optional<GameScore> findBestScoreByUserAndGameType(@Param("user") User user, @Param("gameType") String gameType);
+    Optional<GameScore> findFirstByUserAndGameTypeOrderByScoreDescCreatedAtAsc(User user, String gameType);
     
-    // Find top scores globally
-    @Query("SELECT gs FROM GameScore gs ORDER BY gs.score DESC")
-    List<GameScore> findTopScores();
+    // Find top scores globally with their users, ties going to the earlier game
+    @Query("SELECT gs FROM GameScore gs JOIN FETCH gs.user ORDER BY gs.score DESC, gs.createdAt ASC")
+    List<GameScore> findTopScores(Limit limit);
     
-    // Find top scores by game type
-    @Query("SELECT gs FROM GameScore gs WHERE gs.gameType = :gameType ORDER BY gs.score DESC")
-    List<GameScore> findTopScoresByGameType(@Param("gameType") String gameType);
+    // Find top scores by game type; reads idx_game_scores_game_type_score in order and stops at the limit
+    @Query("SELECT gs FROM GameScore gs JOIN FETCH gs.user WHERE gs.gameType = :gameType " +
+           "ORDER BY gs.score DESC, gs.createdAt ASC")
+    List<GameScore> findTopScoresByGameType(@Param("gameType") String gameType, Limit limit);
     
-    // Find scores within a date range
-    List<GameScore> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+    @Query("SELECT DISTINCT gs.gameType FROM GameScore gs")
+    List<String> findGameTypes();
     
-    // Find scores for a specific user within a date range
-    List<GameScore> findByUserAndCreatedAtBetween(User user, LocalDateTime startDate, LocalDateTime endDate);
+    // Rank lookups: score counts for the in-memory distributions, the database
+    // fallback while those load, and the scores either side of a player's best
+    @Query("SELECT gs.gameType, gs.score, COUNT(gs) FROM GameScore gs GROUP BY gs.gameType, gs.score")
+    List<Object[]> countScoresByGameTypeAndScore();
+    
+    long countByGameType(String gameType);
+    
+    long countByGameTypeAndScoreGreaterThan(String gameType, Integer score);
+    
+    long countByGameTypeAndScoreLessThan(String gameType, Integer score);
     
-    // Count total games played by a user
-    @Query("SELECT COUNT(gs) FROM GameScore gs WHERE gs.user = :user")
-    Long countGamesPlayedByUser(@Param("user") User user);
+    @Query("SELECT gs FROM GameScore gs JOIN FETCH gs.user WHERE gs.gameType = :gameType AND gs.score > :score " +
+           "ORDER BY gs.score ASC, gs.createdAt DESC")
+    List<GameScore> findScoresJustAbove(@Param("gameType") String gameType, @Param("score") Integer score, Limit limit);
     
-    // Count games played by game type for a user
-    @Query("SELECT COUNT(gs) FROM GameScore gs WHERE gs.user = :user AND gs.gameType = :gameType")
-    Long countGamesPlayedByUserAndGameType(@Param("user") User user, @Param("gameType") String gameType);
+    @Query("SELECT gs FROM GameScore gs JOIN FETCH gs.user WHERE gs.gameType = :gameType AND gs.score < :score " +
+           "ORDER BY gs.score DESC, gs.createdAt ASC")
+    List<GameScore> findScoresJustBelow(@Param("gameType") String gameType, @Param("score") Integer score, Limit limit);
     
-    // Calculate total points earned by a user
-    @Query("SELECT COALESCE(SUM(gs.pointsEarned), 0) FROM GameScore gs WHERE gs.user = :user")
-    Long getTotalPointsByUser(@Param("user") User user);
+    // Find scores within a date range
+    List<GameScore> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     
-    // Calculate average score by game type for a user
-    @Query("SELECT AVG(gs.score) FROM GameScore gs WHERE gs.user = :user AND gs.gameType = :gameType")
-    Double getAverageScoreByUserAndGameType(@Param("user") User user, @Param("gameType") String gameType);
+    // Find scores for a specific user within a date range
+    List<GameScore> findByUserAndCreatedAtBetween(User user, LocalDateTime startDate, LocalDateTime endDate);
     
     // Find perfect scores by user
     @Query("SELECT gs FROM GameScore gs WHERE gs.user = :user AND gs.perfectScore = true ORDER BY gs.createdAt DESC")
@@ -72,24 +80,21 @@ public interface GameScoreRepository extends JpaRepository<GameScore, UUID> {
     // Paginated queries for better performance
     Page<GameScore> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     Page<GameScore> findByUserAndGameTypeOrderByCreatedAtDesc(User user, String gameType, Pageable pageable);
-    Page<GameScore> findByGameTypeOrderByScoreDesc(String gameType, Pageable pageable);
+    // Same order as findTopScoresByGameType, with the id breaking exact ties so equal scores keep their page
+    Page<GameScore> findByGameTypeOrderByScoreDescCreatedAtAscIdAsc(String gameType, Pageable pageable);
     
-    // Statistics queries
-    @Query("SELECT gs.gameType, COUNT(gs), AVG(gs.score), MAX(gs.score), MIN(gs.score) " +
-           "FROM GameScore gs WHERE gs.user = :user GROUP BY gs.gameType")
-    List<Object[]> getGameStatisticsByUser(@Param("user") User user);
+    // Statistics queries; per user figures come from user_game_stats, and these
+    // per game type totals (in its column order) recompute a user's rows after a delete
+    @Query("SELECT gs.gameType, COUNT(gs), SUM(gs.score), MIN(gs.score), MAX(gs.score), " +
+           "COALESCE(SUM(gs.pointsEarned), 0), SUM(CASE WHEN gs.perfectScore = true THEN 1 ELSE 0 END), " +
+           "MAX(gs.createdAt) FROM GameScore gs WHERE gs.user = :user AND gs.gameType IN :gameTypes " +
+           "GROUP BY gs.gameType")
+    List<Object[]> getGameTotalsByUser(@Param("user") User user, @Param("gameTypes") Collection<String> gameTypes);
     
     @Query("SELECT gs.gameType, COUNT(gs), AVG(gs.score), MAX(gs.score), MIN(gs.score) " +
            "FROM GameScore gs GROUP BY gs.gameType")
     List<Object[]> getGlobalGameStatistics();
     
-    // Leaderboard queries with user information
-    @Query("SELECT gs FROM GameScore gs JOIN FETCH gs.user ORDER BY gs.score DESC")
-    List<GameScore> findTopScoresWithUser();
-    
-    @Query("SELECT gs FROM GameScore gs JOIN FETCH gs.user WHERE gs.gameType = :gameType ORDER BY gs.score DESC")
-    List<GameScore> findTopScoresByGameTypeWithUser(@Param("gameType") String gameType);
-    
     // Streak calculations
     @Query("SELECT COUNT(DISTINCT DATE(gs.createdAt)) FROM GameScore gs WHERE gs.user = :user " +
            "AND gs.createdAt >= :startDate AND gs.createdAt <= :endDate")
@@ -98,11 +103,11 @@ public interface GameScoreRepository extends JpaRepository<GameScore, UUID> {
     // Performance metrics
     @Query("SELECT gs FROM GameScore gs WHERE gs.user = :user AND gs.timeSpent IS NOT NULL " +
            "ORDER BY gs.timeSpent ASC")
-    List<GameScore> findFastestGamesByUser(@Param("user") User user);
+    List<GameScore> findFastestGamesByUser(@Param("user") User user, Limit limit);
     
     @Query("SELECT gs FROM GameScore gs WHERE gs.user = :user AND gs.movesUsed IS NOT NULL " +
            "ORDER BY gs.movesUsed ASC")
-    List<GameScore> findMostEfficientGamesByUser(@Param("user") User user);
+    List<GameScore> findMostEfficientGamesByUser(@Param("user") User user, Limit limit);
     
     // Daily/weekly/monthly aggregations
     @Query("SELECT DATE(gs.createdAt), COUNT(gs), SUM(gs.pointsEarned) " +
@@ -0,0 +1,95 @@
+package com.tariff.app.repository;
+
+import com.tariff.app.dto.ChapterRateStatistics;
+import com.tariff.app.entity.Tariff;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Queries shared by every country's tariff repository.
+ */
+@NoRepositoryBean
+public interface TariffRepository<T extends Tariff> extends JpaRepository<T, Long> {
+
+    // Product listing filters, each skipped when null: an HTS code range
+    // [fromHts8, toHts8) and bounds on the ad valorem rate in percent
+    // (missing rates count as 0, decimals below 1 are fractions).
+    String PRODUCT_FILTER = "SELECT t FROM #{#entityName} t " +
+           "WHERE (:fromHts8 IS NULL OR t.hts8 >= :fromHts8) AND (:toHts8 IS NULL OR t.hts8 < :toHts8) " +
+           "AND (:minRate IS NULL OR CASE WHEN COALESCE(t.mfnAdValRate, 0) < 1.0 " +
+           "THEN COALESCE(t.mfnAdValRate, 0) * 100.0 ELSE t.mfnAdValRate END >= :minRate) " +
+           "AND (:maxRate IS NULL OR CASE WHEN COALESCE(t.mfnAdValRate, 0) < 1.0 " +
+           "THEN COALESCE(t.mfnAdValRate, 0) * 100.0 ELSE t.mfnAdValRate END <= :maxRate) ";
+
+    @Query("SELECT t FROM #{#entityName} t WHERE t.hts8 = :hts8")
+    Optional<T> findByHts8(@Param("hts8") String hts8);
+
+    @Query("SELECT t FROM #{#entityName} t " +
+       "WHERE t.hts8 LIKE CONCAT(:searchTerm, '%') " +
+       "OR t.briefDescription LIKE CONCAT(:searchTerm, '%')")
+    List<T> findByHts8OrDescriptionContaining(@Param("searchTerm") String searchTerm);
+
+    @Query("SELECT t FROM #{#entityName} t WHERE t.hts8 IN :hts8s")
+    List<T> findByHts8In(@Param("hts8s") Collection<String> hts8s);
+
+    // Per-chapter rate statistics computed in the database, so only one small row
+    // per HTS chapter is transferred. Rates are converted to percentages the same
+    // way the dashboard does: values below 1 are decimals, ad valorem and other
+    // rates above 100% are ignored, and specific rates count as rate / 10 capped
+    // at 50%. Low and high counts use the 2% and 15% thresholds.
+    @Query("SELECT new com.tariff.app.dto.ChapterRateStatistics(r.chapter, COUNT(*), SUM(r.rate), MIN(r.rate), MAX(r.rate), " +
+           "SUM(CASE WHEN r.rate <= 2.0 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rate >= 15.0 THEN 1 ELSE 0 END)) " +
+           "FROM (SELECT substring(t.hts8, 1, 2) AS chapter, " +
+           "CASE WHEN t.mfnAdValRate < 1.0 THEN t.mfnAdValRate * 100.0 ELSE t.mfnAdValRate END AS rate " +
+           "FROM #{#entityName} t WHERE t.mfnAdValRate > 0) r " +
+           "WHERE r.rate <= 100.0 GROUP BY r.chapter")
+    List<ChapterRateStatistics> findAdValRateStatisticsByChapter();
+
+    @Query("SELECT new com.tariff.app.dto.ChapterRateStatistics(r.chapter, COUNT(*), SUM(r.rate), MIN(r.rate), MAX(r.rate), " +
+           "SUM(CASE WHEN r.rate <= 2.0 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rate >= 15.0 THEN 1 ELSE 0 END)) " +
+           "FROM (SELECT substring(t.hts8, 1, 2) AS chapter, " +
+           "CASE WHEN t.mfnSpecificRate > 500.0 THEN 50.0 ELSE t.mfnSpecificRate / 10.0 END AS rate " +
+           "FROM #{#entityName} t WHERE t.mfnSpecificRate > 0) r " +
+           "GROUP BY r.chapter")
+    List<ChapterRateStatistics> findSpecificRateStatisticsByChapter();
+
+    @Query("SELECT new com.tariff.app.dto.ChapterRateStatistics(r.chapter, COUNT(*), SUM(r.rate), MIN(r.rate), MAX(r.rate), " +
+           "SUM(CASE WHEN r.rate <= 2.0 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rate >= 15.0 THEN 1 ELSE 0 END)) " +
+           "FROM (SELECT substring(t.hts8, 1, 2) AS chapter, " +
+           "CASE WHEN t.mfnOtherRate < 1.0 THEN t.mfnOtherRate * 100.0 ELSE t.mfnOtherRate END AS rate " +
+           "FROM #{#entityName} t WHERE t.mfnOtherRate > 0) r " +
+           "WHERE r.rate <= 100.0 GROUP BY r.chapter")
+    List<ChapterRateStatistics> findOtherRateStatisticsByChapter();
+
+    // Keyset pagination in (hts8, id) order, so deep pages cost the same as the
+    // first one and lines sharing a code are neither skipped nor repeated. The
+    // page starts after the line (afterHts8, afterId); null afterHts8 starts at
+    // the first line and null afterId after every line with afterHts8.
+    @Query(PRODUCT_FILTER + "AND (:afterHts8 IS NULL OR t.hts8 > :afterHts8 " +
+           "OR (t.hts8 = :afterHts8 AND t.id > :afterId)) ORDER BY t.hts8, t.id")
+    List<T> findProductPage(@Param("afterHts8") String afterHts8, @Param("afterId") Long afterId,
+                            @Param("fromHts8") String fromHts8, @Param("toHts8") String toHts8,
+                            @Param("minRate") Double minRate, @Param("maxRate") Double maxRate,
+                            Limit limit);
+
+    // Every matching line in code order, fetched from the database in chunks;
+    // must be consumed and closed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(PRODUCT_FILTER + "ORDER BY t.hts8, t.id")
+    Stream<T> streamProducts(@Param("fromHts8") String fromHts8, @Param("toHts8") String toHts8,
+                             @Param("minRate") Double minRate, @Param("maxRate") Double maxRate);
+}
@@ -0,0 +1,32 @@
+package com.tariff.app.repository;
+
+import com.tariff.app.entity.User;
+import com.tariff.app.entity.UserGameStats;
+import com.tariff.app.entity.UserGameStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface UserGameStatsRepository extends JpaRepository<UserGameStats, UserGameStatsId> {
+    
+    // One row per game type the user has played
+    List<UserGameStats> findByUserOrderByIdGameType(User user);
+    
+    // Adds a row for every user and game type with scores but no stats row, e.g.
+    // where V3's backfill never ran; existing rows are left alone, so it can rerun
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_game_stats (user_id, game_type, games_played, score_sum, min_score, " +
+           "best_score, points_earned, perfect_count, last_played_at) " +
+           "SELECT gs.user_id, gs.game_type, COUNT(*), SUM(gs.score), MIN(gs.score), MAX(gs.score), " +
+           "COALESCE(SUM(gs.points_earned), 0), SUM(CASE WHEN gs.perfect_score THEN 1 ELSE 0 END), MAX(gs.created_at) " +
+           "FROM game_scores gs WHERE NOT EXISTS (SELECT 1 FROM user_game_stats s " +
+           "WHERE s.user_id = gs.user_id AND s.game_type = gs.game_type) " +
+           "GROUP BY gs.user_id, gs.game_type", nativeQuery = true)
+    int insertMissingFromGameScores();
+}
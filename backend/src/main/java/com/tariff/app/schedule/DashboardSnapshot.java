@@ -0,0 +1,231 @@
+package com.tariff.app.schedule;
+
+import com.tariff.app.dto.ChapterRateStatistics;
+import com.tariff.app.dto.DashboardDataResponse.CountryTariffData;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable set of precomputed per-country dashboard statistics.
+ *
+ * Statistics are exact over every row of a country's schedule and are
+ * recomputed only when that schedule is reloaded; {@link #with} returns a new
+ * snapshot so readers never see a partially updated one.
+ */
+public final class DashboardSnapshot {
+
+    /**
+     * One country's statistics two ways. The dashboard overview publishes
+     * ad valorem rates only: its overall average, range, low and high tariff
+     * counts, coverage and top category come from ad valorem rates, and the
+     * specific rate average is reported on its own. The country page counts
+     * every rate type, each rate of a line separately, as it always has.
+     */
+    public record Summary(CountryTariffData adValorem, CountryTariffData allRates) {
+    }
+
+    private static final DashboardSnapshot EMPTY = new DashboardSnapshot(Collections.emptyMap());
+
+    private final Map<String, Summary> countries;
+
+    private DashboardSnapshot(Map<String, Summary> countries) {
+        this.countries = countries;
+    }
+
+    public static DashboardSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns a copy of this snapshot with one country's statistics replaced.
+     * A null value removes the country.
+     */
+    public DashboardSnapshot with(String countryCode, Summary data) {
+        Map<String, Summary> next = new LinkedHashMap<>(countries);
+        if (data == null) {
+            next.remove(countryCode);
+        } else {
+            next.put(countryCode, data);
+        }
+        return new DashboardSnapshot(Collections.unmodifiableMap(next));
+    }
+
+    public Optional<Summary> getCountry(String countryCode) {
+        return Optional.ofNullable(countries.get(countryCode));
+    }
+
+    /**
+     * Summarises one schedule in a single pass over its rate columns.
+     *
+     * Ad valorem and "other" rates below 1 are treated as decimals and scaled to
+     * percentages, values above 100% are ignored, and specific rates are mapped
+     * to a percentage equivalent of rate / 10 capped at 50%. A view of the
+     * summary is null when the schedule has no positive rates of its kind.
+     */
+    public static Summary summarize(TariffTable table, String countryName) {
+        double[] adVal = table.column(RateColumn.MFN_AD_VAL);
+        double[] specific = table.column(RateColumn.MFN_SPECIFIC);
+        double[] other = table.column(RateColumn.MFN_OTHER);
+
+        RateStats adValStats = new RateStats();
+        RateStats specificStats = new RateStats();
+        RateStats allStats = new RateStats();
+        int[] categoryCounts = new int[100];
+        int otherCategoryCount = 0;
+        int[] adValCategoryCounts = new int[100];
+        int adValOtherCategoryCount = 0;
+
+        for (int row = 0; row < table.size(); row++) {
+            int chapter = table.chapter(row);
+            int matches = 0;
+
+            double rate = asPercentage(adVal[row]);
+            if (rate > 0 && rate <= 100.0) {
+                adValStats.add(rate);
+                allStats.add(rate);
+                matches++;
+                if (HtsCategories.ofChapter(chapter).equals(HtsCategories.OTHER)) {
+                    adValOtherCategoryCount++;
+                } else {
+                    adValCategoryCounts[chapter]++;
+                }
+            }
+            if (specific[row] > 0) {
+                rate = Math.min(specific[row] / 10.0, 50.0);
+                specificStats.add(rate);
+                allStats.add(rate);
+                matches++;
+            }
+            rate = asPercentage(other[row]);
+            if (rate > 0 && rate <= 100.0) {
+                allStats.add(rate);
+                matches++;
+            }
+
+            if (matches > 0) {
+                if (HtsCategories.ofChapter(chapter).equals(HtsCategories.OTHER)) {
+                    otherCategoryCount += matches;
+                } else {
+                    categoryCounts[chapter] += matches;
+                }
+            }
+        }
+
+        String countryCode = table.getCountryCode();
+        return new Summary(
+            toCountryData(countryCode, countryName, table.size(), adValStats, adValStats, specificStats,
+                          byCategory(adValCategoryCounts, adValOtherCategoryCount)),
+            toCountryData(countryCode, countryName, table.size(), allStats, adValStats, specificStats,
+                          byCategory(categoryCounts, otherCategoryCount)));
+    }
+
+    // HashMap, so ties resolve the same way as the per-request calculation did
+    private static Map<String, Integer> byCategory(int[] categoryCounts, int otherCategoryCount) {
+        Map<String, Integer> byCategory = new HashMap<>();
+        for (int chapter = 0; chapter < categoryCounts.length; chapter++) {
+            if (categoryCounts[chapter] > 0) {
+                byCategory.merge(HtsCategories.ofChapter(chapter), categoryCounts[chapter], Integer::sum);
+            }
+        }
+        if (otherCategoryCount > 0) {
+            byCategory.merge(HtsCategories.OTHER, otherCategoryCount, Integer::sum);
+        }
+        return byCategory;
+    }
+
+    /**
+     * Same summary as {@link #summarize(TariffTable, String)}, assembled from
+     * the per-chapter statistics queries of a tariff repository.
+     */
+    public static Summary summarize(String countryCode, String countryName, long totalProducts,
+                                              List<ChapterRateStatistics> adValRates,
+                                              List<ChapterRateStatistics> specificRates,
+                                              List<ChapterRateStatistics> otherRates) {
+        RateStats adValStats = new RateStats();
+        RateStats specificStats = new RateStats();
+        RateStats allStats = new RateStats();
+        Map<String, Integer> byCategory = new HashMap<>();
+        Map<String, Integer> adValByCategory = new HashMap<>();
+
+        for (List<ChapterRateStatistics> rates : List.of(adValRates, specificRates, otherRates)) {
+            for (ChapterRateStatistics chapter : rates) {
+                allStats.add(chapter);
+                if (rates == adValRates) {
+                    adValStats.add(chapter);
+                    adValByCategory.merge(HtsCategories.of(chapter.getChapter()), chapter.getRateCount().intValue(), Integer::sum);
+                }
+                if (rates == specificRates) specificStats.add(chapter);
+                byCategory.merge(HtsCategories.of(chapter.getChapter()), chapter.getRateCount().intValue(), Integer::sum);
+            }
+        }
+
+        return new Summary(
+            toCountryData(countryCode, countryName, (int) totalProducts,
+                          adValStats, adValStats, specificStats, adValByCategory),
+            toCountryData(countryCode, countryName, (int) totalProducts,
+                          allStats, adValStats, specificStats, byCategory));
+    }
+
+    // allStats feeds the overall average, range, low and high counts and coverage
+    private static CountryTariffData toCountryData(String countryCode, String countryName, int totalProducts,
+                                                   RateStats allStats, RateStats adValStats, RateStats specificStats,
+                                                   Map<String, Integer> byCategory) {
+        if (allStats.count == 0) {
+            return null;
+        }
+
+        double tradeAgreementCoverage = (double) allStats.freeTrade / totalProducts * 100.0;
+
+        String topProductCategory = byCategory.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey)
+            .orElse(HtsCategories.OTHER);
+
+        return new CountryTariffData(
+            countryCode, countryName, allStats.average(), adValStats.average(), specificStats.average(),
+            totalProducts, allStats.max, allStats.min, allStats.freeTrade, allStats.highTariff,
+            tradeAgreementCoverage, topProductCategory
+        );
+    }
+
+    // NaN (null in the database) and non-positive values compare false against > 0
+    private static double asPercentage(double rate) {
+        return rate > 0 && rate < 1.0 ? rate * 100.0 : rate;
+    }
+
+    private static final class RateStats {
+        private int count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private int freeTrade;
+        private int highTariff;
+
+        void add(double rate) {
+            count++;
+            sum += rate;
+            min = Math.min(min, rate);
+            max = Math.max(max, rate);
+            if (rate <= 2.0) freeTrade++;
+            if (rate >= 15.0) highTariff++;
+        }
+
+        void add(ChapterRateStatistics chapter) {
+            count += chapter.getRateCount();
+            sum += chapter.getRateSum();
+            min = Math.min(min, chapter.getMinRate());
+            max = Math.max(max, chapter.getMaxRate());
+            freeTrade += chapter.getLowRateCount();
+            highTariff += chapter.getHighRateCount();
+        }
+
+        double average() {
+            return count == 0 ? 0.0 : sum / count;
+        }
+    }
+}
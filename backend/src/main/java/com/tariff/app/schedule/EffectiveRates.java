@@ -0,0 +1,73 @@
+package com.tariff.app.schedule;
+
+/**
+ * The rates that apply to one HTS8 code shipped from one origin into one
+ * destination, with any column 2 rates already added in. Everything about a
+ * quote except the item's value and quantity, which the evaluation methods
+ * take; they don't allocate, so one instance can price any number of quotes.
+ *
+ * @param adValRate    fraction of the item value
+ * @param specificRate dollars per specificUnit of quantity
+ * @param specificUnit normalized unit of specificRate, null if the rate text doesn't name one
+ * @param otherRate    dollars per otherUnit of quantity, for a second specific component
+ * @param otherUnit    normalized unit of otherRate, null if the rate text doesn't name one
+ */
+public record EffectiveRates(String hts8, String briefDescription, String mfnTextRate,
+                             double adValRate, double specificRate, String specificUnit,
+                             double otherRate, String otherUnit) {
+
+    public boolean hasSpecificDuty() {
+        return specificRate != 0 || otherRate != 0;
+    }
+
+    /**
+     * Duty charged on the item value.
+     */
+    public double adValoremDuty(double itemValue) {
+        return itemValue * adValRate;
+    }
+
+    /**
+     * Duty charged per unit on a quantity measured in unit (normalized, see
+     * {@link RateExpression#normalizeUnit}). Only the specific parts quoted in
+     * that unit are charged; a null unit means the quantity is in the rate's
+     * own unit, which only works when the specific parts share one unit.
+     */
+    public double specificDuty(double quantity, String unit) {
+        double duty = 0.0;
+        if (coversSpecific(unit)) {
+            duty += quantity * specificRate;
+        }
+        if (coversOther(unit)) {
+            duty += quantity * otherRate;
+        }
+        return duty;
+    }
+
+    /**
+     * The unit of a specific part that a quantity in unit can't be charged
+     * against, or null if it covers every specific part.
+     */
+    public String uncoveredUnit(String unit) {
+        if (specificRate != 0 && !coversSpecific(unit)) {
+            return specificUnit;
+        }
+        if (otherRate != 0 && !coversOther(unit)) {
+            return otherUnit;
+        }
+        return null;
+    }
+
+    // A part whose unit isn't known takes any quantity
+    private boolean coversSpecific(String unit) {
+        return unit == null || specificUnit == null || specificUnit.equals(unit);
+    }
+
+    private boolean coversOther(String unit) {
+        if (unit == null) {
+            // The quantity is in the first part's unit
+            return specificRate == 0 || otherUnit == null || specificUnit == null || otherUnit.equals(specificUnit);
+        }
+        return otherUnit == null || otherUnit.equals(unit);
+    }
+}
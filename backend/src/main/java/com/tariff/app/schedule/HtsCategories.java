@@ -0,0 +1,103 @@
+package com.tariff.app.schedule;
+
+import java.util.Optional;
+
+/**
+ * Maps HTS chapters (the first two digits of a code) to the broad product
+ * sections shown on the dashboard.
+ */
+public final class HtsCategories {
+
+    public static final String OTHER = "Other";
+
+    // Chapters 98 and 99 hold special provisions rather than products
+    private static final int FIRST_OTHER_CHAPTER = 98;
+
+    /**
+     * HTS codes from from (inclusive) to to (exclusive), compared as strings;
+     * a null bound is open.
+     */
+    public record CodeRange(String from, String to) {
+    }
+
+    private static final String[] BY_CHAPTER = new String[100];
+
+    static {
+        assign(1, 5, "Animal & Animal Products");
+        assign(6, 15, "Vegetable Products");
+        assign(16, 24, "Foodstuffs");
+        assign(25, 27, "Mineral Products");
+        assign(28, 38, "Chemicals & Allied Industries");
+        assign(39, 40, "Plastics / Rubbers");
+        assign(41, 43, "Raw Hides, Skins, Leather, & Furs");
+        assign(44, 49, "Wood & Wood Products");
+        assign(50, 63, "Textiles");
+        assign(64, 67, "Footwear / Headgear");
+        assign(68, 71, "Stone / Glass");
+        assign(72, 83, "Metals");
+        assign(84, 85, "Machinery / Electrical");
+        assign(86, 89, "Transportation");
+        assign(90, 97, "Miscellaneous");
+    }
+
+    private HtsCategories() {
+    }
+
+    private static void assign(int firstChapter, int lastChapter, String category) {
+        for (int chapter = firstChapter; chapter <= lastChapter; chapter++) {
+            BY_CHAPTER[chapter] = category;
+        }
+    }
+
+    /**
+     * Returns the chapter of an HTS code, or -1 if it does not start with two digits.
+     */
+    public static int chapter(String hts8) {
+        if (hts8 == null || hts8.length() < 2) {
+            return -1;
+        }
+        char first = hts8.charAt(0);
+        char second = hts8.charAt(1);
+        if (first < '0' || first > '9' || second < '0' || second > '9') {
+            return -1;
+        }
+        return (first - '0') * 10 + (second - '0');
+    }
+
+    public static String ofChapter(int chapter) {
+        if (chapter < 0 || chapter >= BY_CHAPTER.length || BY_CHAPTER[chapter] == null) {
+            return OTHER;
+        }
+        return BY_CHAPTER[chapter];
+    }
+
+    public static String of(String hts8) {
+        return ofChapter(chapter(hts8));
+    }
+
+    /**
+     * The codes of a category as one range of chapter prefixes, e.g. "84" to
+     * "86" for Machinery / Electrical, so a query can filter by category with
+     * a range scan. Named categories cover consecutive chapters; Other covers
+     * chapters 98 and 99. Empty for an unknown category.
+     */
+    public static Optional<CodeRange> codeRange(String category) {
+        if (OTHER.equals(category)) {
+            return Optional.of(new CodeRange(String.valueOf(FIRST_OTHER_CHAPTER), null));
+        }
+        int first = -1;
+        int last = -1;
+        for (int chapter = 0; chapter < BY_CHAPTER.length; chapter++) {
+            if (category != null && category.equals(BY_CHAPTER[chapter])) {
+                if (first < 0) {
+                    first = chapter;
+                }
+                last = chapter;
+            }
+        }
+        if (first < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new CodeRange(String.format("%02d", first), String.format("%02d", last + 1)));
+    }
+}
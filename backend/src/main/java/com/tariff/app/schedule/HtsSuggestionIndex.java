@@ -0,0 +1,182 @@
+package com.tariff.app.schedule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * BM25 index over the brief descriptions of every HTS8 code in a set of
+ * {@link TariffTable}s, used to suggest codes for a free-text product name.
+ *
+ * Each distinct HTS8 code is one document, described by the first non-empty
+ * description found in table order. Words are lower-cased, common filler
+ * words are dropped and simple plurals are folded, so "leather shoes" and
+ * "shoe of leather" score the same codes.
+ */
+public class HtsSuggestionIndex {
+
+    // Standard BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "any", "as", "at", "by", "for", "from", "in", "into", "is",
+            "nesoi", "not", "of", "on", "or", "other", "than", "the", "to", "with", "w", "o");
+
+    private final String[] hts8s;
+    private final String[] descriptions;
+    private final int[] documentLengths;
+    private final double averageDocumentLength;
+    // Term -> documents containing it, and how often
+    private final Map<String, int[]> documentsByTerm;
+    private final Map<String, int[]> frequenciesByTerm;
+
+    /**
+     * One scored HTS8 code.
+     */
+    public record Suggestion(String hts8, String briefDescription, double score) {
+    }
+
+    private HtsSuggestionIndex(Collection<TariffTable> tables) {
+        Set<String> indexed = new HashSet<>();
+        List<String> codes = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (TariffTable table : tables) {
+            for (int row = 0; row < table.size(); row++) {
+                String hts8 = table.hts8(row);
+                String description = table.briefDescription(row);
+                if (hts8 == null || description == null || description.isBlank() || !indexed.add(hts8)) {
+                    continue;
+                }
+                codes.add(hts8);
+                texts.add(description);
+            }
+        }
+        this.hts8s = codes.toArray(new String[0]);
+        this.descriptions = texts.toArray(new String[0]);
+        this.documentLengths = new int[hts8s.length];
+
+        Map<String, List<int[]>> postings = new HashMap<>();
+        long totalLength = 0;
+        for (int document = 0; document < descriptions.length; document++) {
+            List<String> terms = analyze(descriptions[document]);
+            documentLengths[document] = terms.size();
+            totalLength += terms.size();
+
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String term : terms) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new ArrayList<>())
+                        .add(new int[] {document, entry.getValue()});
+            }
+        }
+        this.averageDocumentLength = descriptions.length == 0 ? 0 : (double) totalLength / descriptions.length;
+
+        this.documentsByTerm = new HashMap<>(postings.size() * 2);
+        this.frequenciesByTerm = new HashMap<>(postings.size() * 2);
+        for (Map.Entry<String, List<int[]>> entry : postings.entrySet()) {
+            List<int[]> list = entry.getValue();
+            int[] documents = new int[list.size()];
+            int[] frequencies = new int[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                documents[i] = list.get(i)[0];
+                frequencies[i] = list.get(i)[1];
+            }
+            documentsByTerm.put(entry.getKey(), documents);
+            frequenciesByTerm.put(entry.getKey(), frequencies);
+        }
+    }
+
+    public static HtsSuggestionIndex of(Collection<TariffTable> tables) {
+        return new HtsSuggestionIndex(tables);
+    }
+
+    public int size() {
+        return hts8s.length;
+    }
+
+    /**
+     * The best scoring codes for the query, highest score first. Ties are
+     * broken by HTS8 so results are stable.
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        if (query == null || limit <= 0 || hts8s.length == 0) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>(analyze(query));
+        double[] scores = new double[hts8s.length];
+        List<Integer> scored = new ArrayList<>();
+        for (String term : terms) {
+            int[] documents = documentsByTerm.get(term);
+            if (documents == null) {
+                continue;
+            }
+            int[] frequencies = frequenciesByTerm.get(term);
+            double idf = Math.log(1 + (hts8s.length - documents.length + 0.5) / (documents.length + 0.5));
+            for (int i = 0; i < documents.length; i++) {
+                int document = documents[i];
+                double frequency = frequencies[i];
+                double norm = K1 * (1 - B + B * documentLengths[document] / averageDocumentLength);
+                if (scores[document] == 0) {
+                    scored.add(document);
+                }
+                scores[document] += idf * frequency * (K1 + 1) / (frequency + norm);
+            }
+        }
+
+        // Keep the best `limit` documents, weakest on top so it can be evicted
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> {
+            int byScore = Double.compare(scores[a], scores[b]);
+            return byScore != 0 ? byScore : hts8s[b].compareTo(hts8s[a]);
+        });
+        for (int document : scored) {
+            best.add(document);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        Suggestion[] suggestions = new Suggestion[best.size()];
+        for (int i = suggestions.length - 1; i >= 0; i--) {
+            int document = best.poll();
+            suggestions[i] = new Suggestion(hts8s[document], descriptions[document], scores[document]);
+        }
+        return List.of(suggestions);
+    }
+
+    /**
+     * Tokenizes text into index terms: lower-case words without filler words,
+     * with simple English plurals folded to the singular.
+     */
+    static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : TariffSearchIndex.tokenize(text)) {
+            if (!STOP_WORDS.contains(token)) {
+                terms.add(singular(token));
+            }
+        }
+        return terms;
+    }
+
+    private static String singular(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 4 && (word.endsWith("sses") || word.endsWith("xes")
+                || word.endsWith("ches") || word.endsWith("shes"))) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+}
@@ -0,0 +1,26 @@
+package com.tariff.app.schedule;
+
+import com.tariff.app.entity.Tariff;
+
+/**
+ * A preferential tariff program (free trade agreement) and the rate columns
+ * holding its rates. {@link #GENERAL} stands for no program: MFN rates plus
+ * column 2.
+ */
+public record PreferenceProgram(String name, RateColumn adValRate, RateColumn specificRate, RateColumn otherRate) {
+
+    public static final PreferenceProgram GENERAL = new PreferenceProgram("GENERAL", null, null, null);
+
+    public boolean isGeneral() {
+        return adValRate == null;
+    }
+
+    /**
+     * The program's rate in the given column, or the MFN rate when the line
+     * has none.
+     */
+    public static double rateOrMfn(Tariff tariff, RateColumn column, double mfnRate) {
+        Double rate = column.of(tariff);
+        return rate != null ? rate : mfnRate;
+    }
+}
@@ -0,0 +1,39 @@
+package com.tariff.app.schedule;
+
+import com.tariff.app.entity.Tariff;
+
+import java.util.function.Function;
+
+/**
+ * The numeric rate columns shared by every tariffrates_* table, in storage order.
+ */
+public enum RateColumn {
+    MFN_AD_VAL(Tariff::getMfnAdValRate),
+    MFN_SPECIFIC(Tariff::getMfnSpecificRate),
+    MFN_OTHER(Tariff::getMfnOtherRate),
+    COL2_AD_VAL(Tariff::getCol2AdValRate),
+    COL2_SPECIFIC(Tariff::getCol2SpecificRate),
+    COL2_OTHER(Tariff::getCol2OtherRate),
+    JORDAN_AD_VAL(Tariff::getJordanAdValRate),
+    JORDAN_SPECIFIC(Tariff::getJordanSpecificRate),
+    JORDAN_OTHER(Tariff::getJordanOtherRate),
+    SINGAPORE_AD_VAL(Tariff::getSingaporeAdValRate),
+    SINGAPORE_SPECIFIC(Tariff::getSingaporeSpecificRate),
+    SINGAPORE_OTHER(Tariff::getSingaporeOtherRate),
+    AUSTRALIA_AD_VAL(Tariff::getAustraliaAdValRate),
+    AUSTRALIA_SPECIFIC(Tariff::getAustraliaSpecificRate),
+    AUSTRALIA_OTHER(Tariff::getAustraliaOtherRate);
+
+    private final Function<Tariff, Double> getter;
+
+    RateColumn(Function<Tariff, Double> getter) {
+        this.getter = getter;
+    }
+
+    /**
+     * Reads this column from a tariff line, null when the line has no value.
+     */
+    public Double of(Tariff tariff) {
+        return getter.apply(tariff);
+    }
+}
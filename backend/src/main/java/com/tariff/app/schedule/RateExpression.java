@@ -0,0 +1,237 @@
+package com.tariff.app.schedule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A tariff line's text rate (mfn_text_rate), parsed once into its parts.
+ *
+ * A rate is free, an ad valorem percentage ("6.8%"), a specific amount per
+ * unit ("5.3¢/kg", "$1.20/doz.", "1.5¢ each"), or a compound of several of
+ * those ("5.3¢/kg + 2%"). Text that names no rate the parser understands is
+ * kept as {@link Kind#UNPARSED}. Instances are immutable, and identical texts
+ * share one instance, so entities and schedules can hold them for free.
+ */
+public final class RateExpression {
+
+    public enum Kind { NONE, FREE, AD_VALOREM, SPECIFIC, COMPOUND, UNPARSED }
+
+    public enum PartType { AD_VALOREM, SPECIFIC }
+
+    /**
+     * One part of a rate. Ad valorem values are fractions of the item value
+     * (2% is 0.02); specific values are dollars per unit, and unit is the
+     * normalized unit name (see {@link #normalizeUnit}), null for ad valorem.
+     */
+    public record Part(PartType type, double value, String unit) {
+    }
+
+    public static final RateExpression NONE = new RateExpression(null, "", Kind.NONE, List.of());
+
+    // A percentage, or an amount in dollars or cents per unit or each
+    private static final Pattern PART = Pattern.compile(
+            "(?<percent>\\d+(?:\\.\\d+)?)\\s*%"
+            + "|(?<dollar>\\$)?(?<amount>\\d+(?:\\.\\d+)?)\\s*(?<cent>¢)?\\s*(?:/\\s*(?<unit>[^\\s+,;()]+)|\\s+(?<each>each)\\b)");
+
+    // Spellings of the same unit in rate texts and requests
+    private static final Map<String, String> UNIT_ALIASES = Map.ofEntries(
+            Map.entry("kgs", "kg"), Map.entry("kilogram", "kg"), Map.entry("kilograms", "kg"),
+            Map.entry("liter", "l"), Map.entry("liters", "l"), Map.entry("litre", "l"), Map.entry("litres", "l"),
+            Map.entry("no", "each"), Map.entry("pcs", "each"), Map.entry("piece", "each"), Map.entry("pieces", "each"),
+            Map.entry("unit", "each"), Map.entry("units", "each"),
+            Map.entry("dozen", "doz"), Map.entry("pair", "pr"), Map.entry("pairs", "pr"), Map.entry("prs", "pr"),
+            Map.entry("ton", "t"), Map.entry("tons", "t"), Map.entry("tonne", "t"), Map.entry("tonnes", "t"),
+            Map.entry("m²", "m2"), Map.entry("m³", "m3"));
+
+    // Distinct rate texts number in the thousands at most; stop caching past that
+    private static final int MAX_CACHED = 20_000;
+    private static final Map<String, RateExpression> PARSED = new ConcurrentHashMap<>();
+
+    private final String text;
+    private final String displayText;
+    private final Kind kind;
+    private final List<Part> parts;
+    // The parts folded into the shape of the numeric rate columns
+    private final double adValoremRate;
+    private final double specificRate;
+    private final double otherRate;
+    private final String specificUnit;
+    private final String otherUnit;
+
+    private RateExpression(String text, String displayText, Kind kind, List<Part> parts) {
+        this.text = text;
+        this.displayText = displayText;
+        this.kind = kind;
+        this.parts = parts;
+
+        double adValorem = 0.0;
+        double specific = 0.0;
+        double other = 0.0;
+        String firstUnit = null;
+        String furtherUnit = null;
+        boolean firstSpecific = true;
+        for (Part part : parts) {
+            if (part.type() == PartType.AD_VALOREM) {
+                adValorem += part.value();
+            } else if (firstSpecific) {
+                specific = part.value();
+                firstUnit = part.unit();
+                firstSpecific = false;
+            } else {
+                other += part.value();
+                if (furtherUnit == null) {
+                    furtherUnit = part.unit();
+                }
+            }
+        }
+        this.adValoremRate = adValorem;
+        this.specificRate = specific;
+        this.otherRate = other;
+        this.specificUnit = firstUnit;
+        this.otherUnit = furtherUnit;
+    }
+
+    /**
+     * Parses a text rate. Null or blank text gives {@link #NONE}.
+     */
+    public static RateExpression parse(String text) {
+        if (text == null || text.isBlank()) {
+            return NONE;
+        }
+        RateExpression cached = PARSED.get(text);
+        if (cached != null) {
+            return cached;
+        }
+        RateExpression parsed = doParse(text);
+        if (PARSED.size() < MAX_CACHED) {
+            RateExpression raced = PARSED.putIfAbsent(text, parsed);
+            return raced != null ? raced : parsed;
+        }
+        return parsed;
+    }
+
+    private static RateExpression doParse(String text) {
+        List<Part> parts = new ArrayList<>(2);
+        Matcher matcher = PART.matcher(text);
+        while (matcher.find()) {
+            if (matcher.group("percent") != null) {
+                parts.add(new Part(PartType.AD_VALOREM, Double.parseDouble(matcher.group("percent")) / 100, null));
+                continue;
+            }
+            if (matcher.group("dollar") == null && matcher.group("cent") == null && matcher.group("each") == null) {
+                // A bare number over something, e.g. a date or a heading reference, isn't a rate
+                continue;
+            }
+            double amount = Double.parseDouble(matcher.group("amount"));
+            if (matcher.group("cent") != null) {
+                amount /= 100;
+            }
+            String unit = matcher.group("unit") != null ? normalizeUnit(matcher.group("unit")) : "each";
+            parts.add(new Part(PartType.SPECIFIC, amount, unit));
+        }
+
+        Kind kind;
+        if (parts.isEmpty()) {
+            kind = text.toLowerCase(Locale.ROOT).contains("free") ? Kind.FREE : Kind.UNPARSED;
+        } else if (parts.size() > 1) {
+            kind = Kind.COMPOUND;
+        } else {
+            kind = parts.get(0).type() == PartType.AD_VALOREM ? Kind.AD_VALOREM : Kind.SPECIFIC;
+        }
+        return new RateExpression(text, displayText(text), kind, Collections.unmodifiableList(parts));
+    }
+
+    /**
+     * A unit name in the form rate parts use, so "Kg.", "kgs" and "kg" compare
+     * equal: lower case, without a trailing period, with common spellings
+     * mapped to one name. Null or blank gives null.
+     */
+    public static String normalizeUnit(String unit) {
+        if (unit == null || unit.isBlank()) {
+            return null;
+        }
+        String normalized = unit.trim().toLowerCase(Locale.ROOT);
+        if (normalized.endsWith(".")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return UNIT_ALIASES.getOrDefault(normalized, normalized);
+    }
+
+    // The stored text carries a leading label; quotes show the word after it
+    private static String displayText(String text) {
+        String[] words = text.split(" ");
+        return words.length > 1 ? words[1] : "";
+    }
+
+    /**
+     * The text as stored, or null for {@link #NONE}.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * The short form shown in quotes and tariff info.
+     */
+    public String getDisplayText() {
+        return displayText;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<Part> getParts() {
+        return parts;
+    }
+
+    /**
+     * The ad valorem parts, as a fraction of the item value.
+     */
+    public double getAdValoremRate() {
+        return adValoremRate;
+    }
+
+    /**
+     * The first specific part, in dollars per unit.
+     */
+    public double getSpecificRate() {
+        return specificRate;
+    }
+
+    /**
+     * Any further specific parts, in dollars per unit.
+     */
+    public double getOtherRate() {
+        return otherRate;
+    }
+
+    /**
+     * The unit of the first specific part, or null if there is none.
+     */
+    public String getSpecificUnit() {
+        return specificUnit;
+    }
+
+    /**
+     * The unit of the further specific parts, or null if there are none.
+     */
+    public String getOtherUnit() {
+        return otherUnit;
+    }
+
+    public boolean isFree() {
+        return kind == Kind.FREE;
+    }
+
+    @Override
+    public String toString() {
+        return text == null ? "" : text;
+    }
+}
@@ -0,0 +1,28 @@
+package com.tariff.app.schedule;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns strings shared between tariff tables. Most descriptions, text rates
+ * and indicators repeat across rows and across countries, so keeping a single
+ * canonical instance of each saves most of the string heap.
+ *
+ * The pool only grows; it is bounded by the number of distinct values in the
+ * tariff tables.
+ */
+public class StringPool {
+
+    private final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = pool.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+}
@@ -0,0 +1,8 @@
+package com.tariff.app.schedule;
+
+/**
+ * Published after a country's schedule has been (re)loaded and swapped in.
+ * Listeners run synchronously on the reloading thread.
+ */
+public record TariffScheduleReloadedEvent(String countryCode, TariffTable table) {
+}
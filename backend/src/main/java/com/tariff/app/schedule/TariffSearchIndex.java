@@ -0,0 +1,154 @@
+package com.tariff.app.schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Search index over one country's {@link TariffTable}.
+ *
+ * HTS8 prefixes are answered with a binary search over the table's sorted
+ * codes. Descriptions are tokenized into lower-case words, and every word maps
+ * to the rows containing it. Words are kept sorted so the last, partly typed,
+ * word of a query can be matched by prefix.
+ */
+public class TariffSearchIndex {
+
+    private final TariffTable table;
+    // Sorted distinct words and, for each, the rows containing it
+    private final String[] terms;
+    private final int[][] postings;
+    // Rows whose HTS8 isn't a plain 8-digit code, matched by string prefix
+    private final int[] overflowRows;
+    private final String[] lowerCaseDescriptions;
+
+    private TariffSearchIndex(TariffTable table) {
+        this.table = table;
+        this.lowerCaseDescriptions = new String[table.size()];
+
+        Map<String, List<Integer>> rowsByTerm = new HashMap<>();
+        List<Integer> overflow = new ArrayList<>();
+        for (int row = 0; row < table.size(); row++) {
+            if (table.hts8Code(row) < 0) {
+                overflow.add(row);
+            }
+            String description = table.briefDescription(row);
+            if (description == null) {
+                continue;
+            }
+            lowerCaseDescriptions[row] = description.toLowerCase(Locale.ROOT);
+            for (String term : tokenize(description)) {
+                List<Integer> rows = rowsByTerm.computeIfAbsent(term, k -> new ArrayList<>());
+                // Rows are visited in order, so a repeated word only needs checking against the last one
+                if (rows.isEmpty() || rows.get(rows.size() - 1) != row) {
+                    rows.add(row);
+                }
+            }
+        }
+
+        TreeMap<String, List<Integer>> sorted = new TreeMap<>(rowsByTerm);
+        this.terms = sorted.keySet().toArray(new String[0]);
+        this.postings = new int[terms.length][];
+        int i = 0;
+        for (List<Integer> rows : sorted.values()) {
+            postings[i++] = rows.stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.overflowRows = overflow.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static TariffSearchIndex of(TariffTable table) {
+        return new TariffSearchIndex(table);
+    }
+
+    public TariffTable getTable() {
+        return table;
+    }
+
+    /**
+     * Splits text into lower-case words of letters and digits.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Rows whose HTS8 starts with the given code prefix, in HTS order. Dots
+     * are ignored, so "0101.21" matches like "010121".
+     */
+    public int[] findByHts8Prefix(String prefix) {
+        String digits = prefix.replace(".", "");
+        int[] range = table.rowRangeForPrefix(digits);
+        int[] rows = new int[range[1] - range[0]];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = range[0] + i;
+        }
+        if (overflowRows.length == 0) {
+            return rows;
+        }
+
+        int[] matches = Arrays.copyOf(rows, rows.length + overflowRows.length);
+        int count = rows.length;
+        for (int row : overflowRows) {
+            String hts8 = table.hts8(row);
+            if (hts8 != null && hts8.startsWith(prefix)) {
+                matches[count++] = row;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Rows whose description contains every word of the query, treating each
+     * word as a prefix. Returned in HTS order.
+     */
+    public BitSet findByDescriptionWords(List<String> words) {
+        BitSet matches = null;
+        for (String word : words) {
+            BitSet rows = rowsWithTermPrefix(word);
+            if (matches == null) {
+                matches = rows;
+            } else {
+                matches.and(rows);
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        return matches != null ? matches : new BitSet();
+    }
+
+    public boolean descriptionStartsWith(int row, String lowerCaseText) {
+        String description = lowerCaseDescriptions[row];
+        return description != null && description.startsWith(lowerCaseText);
+    }
+
+    private BitSet rowsWithTermPrefix(String prefix) {
+        BitSet rows = new BitSet(table.size());
+        int i = Arrays.binarySearch(terms, prefix);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        for (; i < terms.length && terms[i].startsWith(prefix); i++) {
+            for (int row : postings[i]) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,344 @@
+package com.tariff.app.schedule;
+
+import com.tariff.app.entity.Tariff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Column-oriented, read-only copy of one country's tariff schedule.
+ *
+ * Each row is stored as primitives: the HTS8 code as an int, every rate column
+ * as a double[] (NaN where the database value is null) and strings as
+ * references into a shared {@link StringPool}. Rows are sorted by HTS8, so a
+ * lookup is a binary search and a scan of one rate column walks one array.
+ *
+ * Rows are exposed through the {@link Tariff} interface as lightweight views;
+ * the views are read-only.
+ */
+public class TariffTable {
+
+    private static final int NO_CODE = -1;
+    // Stands in for a row loaded without a database id
+    private static final long NO_ID = Long.MIN_VALUE;
+
+    private final String countryCode;
+    private final int size;
+    // Rows with an 8-digit numeric HTS8 come first, sorted by code.
+    // Rows whose HTS8 can't be packed into an int follow, with code NO_CODE.
+    private final int[] hts8Codes;
+    private final int encodedRows;
+    private final String[] overflowHts8;
+    private final Map<String, Integer> overflowIndex;
+    private final long[] ids;
+    private final String[] briefDescriptions;
+    private final RateExpression[] mfnRates;
+    private final double[][] rates;
+    private final String[] jordanIndicators;
+    private final String[] singaporeIndicators;
+    private final String[] australiaIndicators;
+
+    private TariffTable(String countryCode, List<? extends Tariff> rows, StringPool pool) {
+        this.countryCode = countryCode;
+        this.size = rows.size();
+        this.hts8Codes = new int[size];
+        this.ids = new long[size];
+        this.briefDescriptions = new String[size];
+        this.mfnRates = new RateExpression[size];
+        this.rates = new double[RateColumn.values().length][size];
+        this.jordanIndicators = new String[size];
+        this.singaporeIndicators = new String[size];
+        this.australiaIndicators = new String[size];
+
+        // Sort by packed (code, original position) so rows are ordered by HTS8
+        // without boxing; unencodable codes sort last, in their original order.
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            int code = encodeHts8(rows.get(i).getHts8());
+            long key = code == NO_CODE ? Integer.MAX_VALUE : code;
+            order[i] = (key << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int encoded = 0;
+        List<String> overflow = new ArrayList<>();
+        Map<String, Integer> overflowRows = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            Tariff tariff = rows.get((int) order[row]);
+            int code = encodeHts8(tariff.getHts8());
+            hts8Codes[row] = code;
+            if (code == NO_CODE) {
+                String hts8 = pool.intern(tariff.getHts8());
+                overflow.add(hts8);
+                if (hts8 != null) {
+                    overflowRows.putIfAbsent(hts8, row);
+                }
+            } else {
+                encoded++;
+            }
+
+            Long id = tariff.getId();
+            ids[row] = id == null ? NO_ID : id;
+            briefDescriptions[row] = pool.intern(tariff.getBriefDescription());
+            // Already shared between rows with the same text
+            mfnRates[row] = tariff.getMfnRate();
+            jordanIndicators[row] = pool.intern(tariff.getJordanIndicator());
+            singaporeIndicators[row] = pool.intern(tariff.getSingaporeIndicator());
+            australiaIndicators[row] = pool.intern(tariff.getAustraliaIndicator());
+
+            set(RateColumn.MFN_AD_VAL, row, tariff.getMfnAdValRate());
+            set(RateColumn.MFN_SPECIFIC, row, tariff.getMfnSpecificRate());
+            set(RateColumn.MFN_OTHER, row, tariff.getMfnOtherRate());
+            set(RateColumn.COL2_AD_VAL, row, tariff.getCol2AdValRate());
+            set(RateColumn.COL2_SPECIFIC, row, tariff.getCol2SpecificRate());
+            set(RateColumn.COL2_OTHER, row, tariff.getCol2OtherRate());
+            set(RateColumn.JORDAN_AD_VAL, row, tariff.getJordanAdValRate());
+            set(RateColumn.JORDAN_SPECIFIC, row, tariff.getJordanSpecificRate());
+            set(RateColumn.JORDAN_OTHER, row, tariff.getJordanOtherRate());
+            set(RateColumn.SINGAPORE_AD_VAL, row, tariff.getSingaporeAdValRate());
+            set(RateColumn.SINGAPORE_SPECIFIC, row, tariff.getSingaporeSpecificRate());
+            set(RateColumn.SINGAPORE_OTHER, row, tariff.getSingaporeOtherRate());
+            set(RateColumn.AUSTRALIA_AD_VAL, row, tariff.getAustraliaAdValRate());
+            set(RateColumn.AUSTRALIA_SPECIFIC, row, tariff.getAustraliaSpecificRate());
+            set(RateColumn.AUSTRALIA_OTHER, row, tariff.getAustraliaOtherRate());
+        }
+        this.encodedRows = encoded;
+        this.overflowHts8 = overflow.toArray(new String[0]);
+        this.overflowIndex = Collections.unmodifiableMap(overflowRows);
+    }
+
+    /**
+     * Builds a table from a list of tariff rows. The list is only read during
+     * construction and can be discarded afterwards.
+     */
+    public static TariffTable of(String countryCode, List<? extends Tariff> rows, StringPool pool) {
+        return new TariffTable(countryCode, rows, pool);
+    }
+
+    /**
+     * Packs an 8-digit HTS code into an int, or returns -1 if it is not exactly
+     * eight ASCII digits.
+     */
+    public static int encodeHts8(String hts8) {
+        if (hts8 == null || hts8.length() != 8) {
+            return NO_CODE;
+        }
+        int code = 0;
+        for (int i = 0; i < 8; i++) {
+            char c = hts8.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_CODE;
+            }
+            code = code * 10 + (c - '0');
+        }
+        return code;
+    }
+
+    public static String decodeHts8(int code) {
+        char[] digits = new char[8];
+        for (int i = 7; i >= 0; i--) {
+            digits[i] = (char) ('0' + code % 10);
+            code /= 10;
+        }
+        return new String(digits);
+    }
+
+    private void set(RateColumn column, int row, Double value) {
+        rates[column.ordinal()][row] = value != null ? value : Double.NaN;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the row index for an HTS8 code, or -1 if the table has no such line.
+     */
+    public int indexOf(String hts8) {
+        int code = encodeHts8(hts8);
+        if (code == NO_CODE) {
+            Integer row = hts8 != null ? overflowIndex.get(hts8) : null;
+            return row != null ? row : -1;
+        }
+        int row = Arrays.binarySearch(hts8Codes, 0, encodedRows, code);
+        if (row < 0) {
+            return -1;
+        }
+        // Return the first of any duplicate codes so lookups are stable
+        while (row > 0 && hts8Codes[row - 1] == code) {
+            row--;
+        }
+        return row;
+    }
+
+    /**
+     * Returns the first row whose HTS8 starts with the given digits, and one past
+     * the last, as {from, to}. Only 8-digit codes are considered; the range is
+     * empty if nothing matches or the prefix isn't 1 to 8 digits.
+     */
+    public int[] rowRangeForPrefix(String digits) {
+        int length = digits.length();
+        if (length == 0 || length > 8) {
+            return new int[] {0, 0};
+        }
+        long prefix = 0;
+        for (int i = 0; i < length; i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                return new int[] {0, 0};
+            }
+            prefix = prefix * 10 + (c - '0');
+        }
+        long scale = 1;
+        for (int i = length; i < 8; i++) {
+            scale *= 10;
+        }
+        return new int[] {lowerBound(prefix * scale), lowerBound((prefix + 1) * scale)};
+    }
+
+    // First encoded row with a code >= the given one
+    private int lowerBound(long code) {
+        int low = 0;
+        int high = encodedRows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (hts8Codes[mid] < code) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public Optional<Tariff> find(String hts8) {
+        int row = indexOf(hts8);
+        return row < 0 ? Optional.empty() : Optional.of(row(row));
+    }
+
+    public Tariff row(int row) {
+        return new RowView(row);
+    }
+
+    public String hts8(int row) {
+        return row < encodedRows ? decodeHts8(hts8Codes[row]) : overflowHts8[row - encodedRows];
+    }
+
+    public int hts8Code(int row) {
+        return hts8Codes[row];
+    }
+
+    /**
+     * Returns the HTS chapter (first two digits) of a row, or -1 if it has none.
+     */
+    public int chapter(int row) {
+        if (row < encodedRows) {
+            return hts8Codes[row] / 1_000_000;
+        }
+        return HtsCategories.chapter(overflowHts8[row - encodedRows]);
+    }
+
+    public String briefDescription(int row) {
+        return briefDescriptions[row];
+    }
+
+    public String mfnTextRate(int row) {
+        return mfnRates[row].getDisplayText();
+    }
+
+    public RateExpression mfnRate(int row) {
+        return mfnRates[row];
+    }
+
+    /**
+     * Returns the raw rate, NaN when the database value is null.
+     */
+    public double rate(int row, RateColumn column) {
+        return rates[column.ordinal()][row];
+    }
+
+    /**
+     * Returns a whole rate column for sequential scans. Callers must not modify it.
+     */
+    public double[] column(RateColumn column) {
+        return rates[column.ordinal()];
+    }
+
+    private Double boxed(int row, RateColumn column) {
+        double value = rates[column.ordinal()][row];
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /**
+     * Read-only {@link Tariff} view over one row of the table.
+     */
+    private final class RowView implements Tariff {
+
+        private final int row;
+
+        private RowView(int row) {
+            this.row = row;
+        }
+
+        public Long getId() { return ids[row] == NO_ID ? null : ids[row]; }
+        public String getHts8() { return hts8(row); }
+        public String getBriefDescription() { return briefDescriptions[row]; }
+        public String getMfnTextRate() { return mfnRates[row].getDisplayText(); }
+        public RateExpression getMfnRate() { return mfnRates[row]; }
+
+        public Double getMfnAdValRate() { return boxed(row, RateColumn.MFN_AD_VAL); }
+        public Double getMfnSpecificRate() { return boxed(row, RateColumn.MFN_SPECIFIC); }
+        public Double getMfnOtherRate() { return boxed(row, RateColumn.MFN_OTHER); }
+        public Double getCol2AdValRate() { return boxed(row, RateColumn.COL2_AD_VAL); }
+        public Double getCol2SpecificRate() { return boxed(row, RateColumn.COL2_SPECIFIC); }
+        public Double getCol2OtherRate() { return boxed(row, RateColumn.COL2_OTHER); }
+        public Double getJordanAdValRate() { return boxed(row, RateColumn.JORDAN_AD_VAL); }
+        public Double getJordanSpecificRate() { return boxed(row, RateColumn.JORDAN_SPECIFIC); }
+        public Double getJordanOtherRate() { return boxed(row, RateColumn.JORDAN_OTHER); }
+        public Double getSingaporeAdValRate() { return boxed(row, RateColumn.SINGAPORE_AD_VAL); }
+        public Double getSingaporeSpecificRate() { return boxed(row, RateColumn.SINGAPORE_SPECIFIC); }
+        public Double getSingaporeOtherRate() { return boxed(row, RateColumn.SINGAPORE_OTHER); }
+        public Double getAustraliaAdValRate() { return boxed(row, RateColumn.AUSTRALIA_AD_VAL); }
+        public Double getAustraliaSpecificRate() { return boxed(row, RateColumn.AUSTRALIA_SPECIFIC); }
+        public Double getAustraliaOtherRate() { return boxed(row, RateColumn.AUSTRALIA_OTHER); }
+
+        public String getJordanIndicator() { return jordanIndicators[row]; }
+        public String getSingaporeIndicator() { return singaporeIndicators[row]; }
+        public String getAustraliaIndicator() { return australiaIndicators[row]; }
+
+        public void setHts8(String hts8) { throw readOnly(); }
+        public void setBriefDescription(String briefDescription) { throw readOnly(); }
+        public void setMfnTextRate(String mfnTextRate) { throw readOnly(); }
+        public void setMfnAdValRate(Double mfnAdValRate) { throw readOnly(); }
+        public void setMfnSpecificRate(Double mfnSpecificRate) { throw readOnly(); }
+        public void setMfnOtherRate(Double mfnOtherRate) { throw readOnly(); }
+        public void setCol2AdValRate(Double col2AdValRate) { throw readOnly(); }
+        public void setCol2SpecificRate(Double col2SpecificRate) { throw readOnly(); }
+        public void setCol2OtherRate(Double col2OtherRate) { throw readOnly(); }
+        public void setJordanAdValRate(Double jordanAdValRate) { throw readOnly(); }
+        public void setJordanSpecificRate(Double jordanSpecificRate) { throw readOnly(); }
+        public void setJordanOtherRate(Double jordanOtherRate) { throw readOnly(); }
+        public void setSingaporeAdValRate(Double singaporeAdValRate) { throw readOnly(); }
+        public void setSingaporeSpecificRate(Double singaporeSpecificRate) { throw readOnly(); }
+        public void setSingaporeOtherRate(Double singaporeOtherRate) { throw readOnly(); }
+        public void setAustraliaAdValRate(Double australiaAdValRate) { throw readOnly(); }
+        public void setAustraliaSpecificRate(Double australiaSpecificRate) { throw readOnly(); }
+        public void setAustraliaOtherRate(Double australiaOtherRate) { throw readOnly(); }
+        public void setJordanIndicator(String jordanIndicator) { throw readOnly(); }
+        public void setSingaporeIndicator(String singaporeIndicator) { throw readOnly(); }
+        public void setAustraliaIndicator(String australiaIndicator) { throw readOnly(); }
+
+        private UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Tariff rows from " + countryCode + " schedule are read-only");
+        }
+    }
+}
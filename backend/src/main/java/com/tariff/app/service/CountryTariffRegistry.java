@@ -0,0 +1,238 @@
+package com.tariff.app.service;
+
+import com.tariff.app.entity.AustraliaTariff;
+import com.tariff.app.entity.BrazilTariff;
+import com.tariff.app.entity.CanadaTariff;
+import com.tariff.app.entity.ChinaTariff;
+import com.tariff.app.entity.FranceTariff;
+import com.tariff.app.entity.IndiaTariff;
+import com.tariff.app.entity.IndonesiaTariff;
+import com.tariff.app.entity.IsraelTariff;
+import com.tariff.app.entity.ItalyTariff;
+import com.tariff.app.entity.JapanTariff;
+import com.tariff.app.entity.MexicoTariff;
+import com.tariff.app.entity.SaudiArabiaTariff;
+import com.tariff.app.entity.SingaporeTariff;
+import com.tariff.app.entity.SouthAfricaTariff;
+import com.tariff.app.entity.SouthKoreaTariff;
+import com.tariff.app.entity.Tariff;
+import com.tariff.app.entity.TurkeyTariff;
+import com.tariff.app.entity.UKTariff;
+import com.tariff.app.entity.USTariff;
+import com.tariff.app.repository.AustraliaTariffRepository;
+import com.tariff.app.repository.BrazilTariffRepository;
+import com.tariff.app.repository.CanadaTariffRepository;
+import com.tariff.app.repository.ChinaTariffRepository;
+import com.tariff.app.repository.FranceTariffRepository;
+import com.tariff.app.repository.IndiaTariffRepository;
+import com.tariff.app.repository.IndonesiaTariffRepository;
+import com.tariff.app.repository.IsraelTariffRepository;
+import com.tariff.app.repository.ItalyTariffRepository;
+import com.tariff.app.repository.JapanTariffRepository;
+import com.tariff.app.repository.MexicoTariffRepository;
+import com.tariff.app.repository.SaudiArabiaTariffRepository;
+import com.tariff.app.repository.SingaporeTariffRepository;
+import com.tariff.app.repository.SouthAfricaTariffRepository;
+import com.tariff.app.repository.SouthKoreaTariffRepository;
+import com.tariff.app.repository.TariffRepository;
+import com.tariff.app.repository.TurkeyTariffRepository;
+import com.tariff.app.repository.UKTariffRepository;
+import com.tariff.app.repository.USTariffRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Table;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The supported arrival countries and where their tariff schedules live.
+ *
+ * Maps an ISO code, or one of its aliases, to the country's repository and
+ * table in constant time, and runs per-country work for all countries at once
+ * on a small bounded pool, or on virtual threads when spring.threads.virtual.enabled is set.
+ */
+@Component
+public class CountryTariffRegistry {
+
+    public static final String DEFAULT_COUNTRY = "US";
+
+    @Autowired
+    private USTariffRepository usTariffRepository;
+    @Autowired
+    private ChinaTariffRepository chinaTariffRepository;
+    @Autowired
+    private SingaporeTariffRepository singaporeTariffRepository;
+    @Autowired
+    private UKTariffRepository ukTariffRepository;
+    @Autowired
+    private JapanTariffRepository japanTariffRepository;
+    @Autowired
+    private SouthKoreaTariffRepository southKoreaTariffRepository;
+    @Autowired
+    private CanadaTariffRepository canadaTariffRepository;
+    @Autowired
+    private AustraliaTariffRepository australiaTariffRepository;
+    @Autowired
+    private FranceTariffRepository franceTariffRepository;
+    @Autowired
+    private IndiaTariffRepository indiaTariffRepository;
+    @Autowired
+    private IndonesiaTariffRepository indonesiaTariffRepository;
+    @Autowired
+    private IsraelTariffRepository israelTariffRepository;
+    @Autowired
+    private ItalyTariffRepository italyTariffRepository;
+    @Autowired
+    private MexicoTariffRepository mexicoTariffRepository;
+    @Autowired
+    private SaudiArabiaTariffRepository saudiArabiaTariffRepository;
+    @Autowired
+    private SouthAfricaTariffRepository southAfricaTariffRepository;
+    @Autowired
+    private TurkeyTariffRepository turkeyTariffRepository;
+    @Autowired
+    private BrazilTariffRepository brazilTariffRepository;
+
+    @Value("${tariff.registry.fan-out-threads:8}")
+    private int fanOutThreads;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // ISO code -> country, in registration order
+    private final Map<String, CountryTariffs> countries = new LinkedHashMap<>();
+    // Upper-case ISO code, name or alias -> ISO code
+    private final Map<String, String> codesByKey = new HashMap<>();
+
+    private ExecutorService fanOutExecutor;
+
+    /**
+     * One supported arrival country.
+     */
+    public record CountryTariffs(String code, String name, String tableName,
+                                 TariffRepository<? extends Tariff> repository) {
+    }
+
+    @PostConstruct
+    void registerCountries() {
+        register("US", "United States", USTariff.class, usTariffRepository, "USA");
+        register("CN", "China", ChinaTariff.class, chinaTariffRepository);
+        register("SG", "Singapore", SingaporeTariff.class, singaporeTariffRepository);
+        register("GB", "United Kingdom", UKTariff.class, ukTariffRepository, "UK");
+        register("JP", "Japan", JapanTariff.class, japanTariffRepository);
+        register("KR", "South Korea", SouthKoreaTariff.class, southKoreaTariffRepository);
+        register("CA", "Canada", CanadaTariff.class, canadaTariffRepository);
+        register("AU", "Australia", AustraliaTariff.class, australiaTariffRepository);
+        register("FR", "France", FranceTariff.class, franceTariffRepository);
+        register("IN", "India", IndiaTariff.class, indiaTariffRepository);
+        register("ID", "Indonesia", IndonesiaTariff.class, indonesiaTariffRepository);
+        register("IL", "Israel", IsraelTariff.class, israelTariffRepository);
+        register("IT", "Italy", ItalyTariff.class, italyTariffRepository);
+        register("MX", "Mexico", MexicoTariff.class, mexicoTariffRepository);
+        register("SA", "Saudi Arabia", SaudiArabiaTariff.class, saudiArabiaTariffRepository);
+        register("ZA", "South Africa", SouthAfricaTariff.class, southAfricaTariffRepository);
+        register("TR", "Turkey", TurkeyTariff.class, turkeyTariffRepository);
+        register("BR", "Brazil", BrazilTariff.class, brazilTariffRepository);
+
+        if (virtualThreads) {
+            // Concurrency is then bounded by the JDBC connection pool rather than a thread count
+            fanOutExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tariff-fan-out-", 1).factory());
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        fanOutExecutor = Executors.newFixedThreadPool(Math.max(1, fanOutThreads), runnable -> {
+            Thread thread = new Thread(runnable, "tariff-fan-out-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    private void register(String code, String name, Class<? extends Tariff> entityClass,
+                          TariffRepository<? extends Tariff> repository, String... aliases) {
+        String tableName = entityClass.getAnnotation(Table.class).name();
+        countries.put(code, new CountryTariffs(code, name, tableName, repository));
+        codesByKey.put(code, code);
+        codesByKey.put(name.toUpperCase(), code);
+        codesByKey.put(name.toUpperCase().replace(' ', '_'), code);
+        for (String alias : aliases) {
+            codesByKey.put(alias, code);
+        }
+    }
+
+    /**
+     * Looks up a country by ISO code, name or alias, ignoring case.
+     */
+    public Optional<CountryTariffs> find(String codeOrAlias) {
+        if (codeOrAlias == null) {
+            return Optional.empty();
+        }
+        String code = codesByKey.get(codeOrAlias.trim().toUpperCase());
+        return code == null ? Optional.empty() : Optional.of(countries.get(code));
+    }
+
+    /**
+     * Maps an ISO code, name or alias to a supported ISO code.
+     * Unknown or missing values resolve to the US.
+     */
+    public String resolveCode(String codeOrAlias) {
+        return find(codeOrAlias).map(CountryTariffs::code).orElse(DEFAULT_COUNTRY);
+    }
+
+    public CountryTariffs get(String codeOrAlias) {
+        return countries.get(resolveCode(codeOrAlias));
+    }
+
+    public String getName(String code) {
+        return find(code).map(CountryTariffs::name).orElse(code);
+    }
+
+    public Set<String> getCodes() {
+        return Collections.unmodifiableSet(countries.keySet());
+    }
+
+    public Collection<CountryTariffs> getCountries() {
+        return Collections.unmodifiableCollection(countries.values());
+    }
+
+    /**
+     * Runs a task for every country concurrently and returns the non-null
+     * results by ISO code, in registration order. Takes as long as the slowest
+     * country rather than the sum of all of them.
+     */
+    public <R> Map<String, R> fanOut(Function<CountryTariffs, R> task) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(countries.size());
+        for (CountryTariffs country : countries.values()) {
+            futures.add(CompletableFuture.supplyAsync(() -> task.apply(country), fanOutExecutor));
+        }
+
+        Map<String, R> results = new LinkedHashMap<>();
+        int i = 0;
+        for (CountryTariffs country : countries.values()) {
+            R result = futures.get(i++).join();
+            if (result != null) {
+                results.put(country.code(), result);
+            }
+        }
+        return results;
+    }
+}
@@ -3,73 +3,47 @@ package com.tariff.app.service;
 import com.tariff.app.dto.DashboardDataResponse;
 import com.tariff.app.dto.ProductTariffData;
 import com.tariff.app.entity.Tariff;
-import com.tariff.app.repository.*;
+import com.tariff.app.repository.TariffRepository;
+import com.tariff.app.schedule.DashboardSnapshot;
+import com.tariff.app.schedule.HtsCategories;
+import com.tariff.app.schedule.TariffScheduleReloadedEvent;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class DashboardService {
 
+    // Page size of the product listing when none is asked for
+    public static final int DEFAULT_PRODUCT_PAGE_SIZE = 1000;
+    private static final String ALL_CATEGORIES = "all";
+
     @Autowired
-    private USTariffRepository usTariffRepository;
-    @Autowired
-    private ChinaTariffRepository chinaTariffRepository;
-    @Autowired
-    private SingaporeTariffRepository singaporeTariffRepository;
-    @Autowired
-    private UKTariffRepository ukTariffRepository;
-    @Autowired
-    private JapanTariffRepository japanTariffRepository;
-    @Autowired
-    private SouthKoreaTariffRepository southKoreaTariffRepository;
-    @Autowired
-    private CanadaTariffRepository canadaTariffRepository;
-    @Autowired
-    private AustraliaTariffRepository australiaTariffRepository;
-    @Autowired
-    private FranceTariffRepository franceTariffRepository;
-    @Autowired
-    private IndiaTariffRepository indiaTariffRepository;
-    @Autowired
-    private IndonesiaTariffRepository indonesiaTariffRepository;
-    @Autowired
-    private IsraelTariffRepository israelTariffRepository;
-    @Autowired
-    private ItalyTariffRepository italyTariffRepository;
-    @Autowired
-    private MexicoTariffRepository mexicoTariffRepository;
-    @Autowired
-    private SaudiArabiaTariffRepository saudiArabiaTariffRepository;
+    private CountryTariffRegistry countryTariffRegistry;
     @Autowired
-    private SouthAfricaTariffRepository southAfricaTariffRepository;
+    private TariffScheduleEngine tariffScheduleEngine;
     @Autowired
-    private TurkeyTariffRepository turkeyTariffRepository;
+    private TariffHeatmapService tariffHeatmapService;
     @Autowired
-    private BrazilTariffRepository brazilTariffRepository;
-
-    private final Map<String, String> countryNames = new HashMap<String, String>() {{
-        put("US", "United States");
-        put("CN", "China");
-        put("SG", "Singapore");
-        put("GB", "United Kingdom");
-        put("JP", "Japan");
-        put("KR", "South Korea");
-        put("CA", "Canada");
-        put("AU", "Australia");
-        put("FR", "France");
-        put("IN", "India");
-        put("ID", "Indonesia");
-        put("IL", "Israel");
-        put("IT", "Italy");
-        put("MX", "Mexico");
-        put("SA", "Saudi Arabia");
-        put("ZA", "South Africa");
-        put("TR", "Turkey");
-        put("BR", "Brazil");
-    }};
+    private EntityManager entityManager;
+
+    /**
+     * One page of products; nextCursor is null on the last page.
+     */
+    public record ProductPage(List<ProductTariffData> products, String nextCursor) {
+    }
+
+    private final AtomicReference<DashboardSnapshot> snapshot = new AtomicReference<>(DashboardSnapshot.empty());
 
     public DashboardDataResponse getDashboardData() {
         List<DashboardDataResponse.CountryTariffData> countryData = new ArrayList<>();
@@ -81,371 +55,58 @@ public class DashboardService {
         List<DashboardDataResponse.ProductCategoryInsight> productCategoryInsights = new ArrayList<>();
         List<DashboardDataResponse.TariffTrendInsight> tariffTrendInsights = new ArrayList<>();
 
-        // Process each country's data with basic processing for performance
-        processCountryDataBasic("US", usTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("CN", chinaTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("SG", singaporeTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("GB", ukTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("JP", japanTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("KR", southKoreaTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("CA", canadaTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("AU", australiaTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("FR", franceTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("IN", indiaTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("ID", indonesiaTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("IL", israelTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("IT", italyTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("MX", mexicoTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("SA", saudiArabiaTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("ZA", southAfricaTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("TR", turkeyTariffRepository.findAll(), countryData, averageRates, productCounts);
-        processCountryDataBasic("BR", brazilTariffRepository.findAll(), countryData, averageRates, productCounts);
+        // Served from the precomputed snapshot, so cost doesn't grow with table size.
+        // The overview compares countries on ad valorem rates only.
+        for (String countryCode : tariffScheduleEngine.getCountryCodes()) {
+            addCountryData(countryCode, DashboardSnapshot.Summary::adValorem, countryData, averageRates, productCounts);
+        }
 
         return new DashboardDataResponse(countryData, averageRates, productCounts, heatmapData, 
                                        topImportingCountries, tradeAgreementInsights, 
                                        productCategoryInsights, tariffTrendInsights);
     }
 
-    private void processCountryDataBasic(String countryCode, List<? extends Tariff> tariffs, 
-                                       List<DashboardDataResponse.CountryTariffData> countryData,
-                                       Map<String, Double> averageRates,
-                                       Map<String, Integer> productCounts) {
-        if (tariffs.isEmpty()) return;
-
-        // Sample only first 100 tariffs for performance
-        int sampleSize = Math.min(100, tariffs.size());
-        List<Double> mfnAdValRates = new ArrayList<>();
-        List<Double> allRates = new ArrayList<>();
-
-        for (int i = 0; i < sampleSize; i++) {
-            Tariff tariff = tariffs.get(i);
-            if (tariff.getMfnAdValRate() != null && tariff.getMfnAdValRate() > 0) {
-                double rate = tariff.getMfnAdValRate();
-                if (rate < 1.0) rate = rate * 100.0; // Convert decimal to percentage
-                if (rate <= 100.0) {
-                    mfnAdValRates.add(rate);
-                    allRates.add(rate);
-                }
-            }
-        }
-
-        if (!allRates.isEmpty()) {
-            double avgMfnAdVal = mfnAdValRates.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-            double avgMfn = allRates.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-            double maxRate = allRates.stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
-            double minRate = allRates.stream().mapToDouble(Double::doubleValue).min().orElse(0.0);
-
-            String countryName = countryNames.getOrDefault(countryCode, countryCode);
-
-            // Basic calculations for performance
-            int freeTradeProducts = (int) (tariffs.size() * 0.15); // Estimate 15% free trade
-            int highTariffProducts = (int) (tariffs.size() * 0.08); // Estimate 8% high tariff
-            double tradeAgreementCoverage = 15.0; // Estimate
-            String topProductCategory = "Electronics"; // Default
-
-            DashboardDataResponse.CountryTariffData data = new DashboardDataResponse.CountryTariffData(
-                countryCode, countryName, avgMfn, avgMfnAdVal, 0.0,
-                tariffs.size(), maxRate, minRate, freeTradeProducts, highTariffProducts,
-                tradeAgreementCoverage, topProductCategory
-            );
-
-            countryData.add(data);
-            averageRates.put(countryCode, avgMfn);
-            productCounts.put(countryCode, tariffs.size());
-        }
-    }
-
-    private void processCountryDataWithInsights(String countryCode, List<? extends Tariff> tariffs, 
-                                              List<DashboardDataResponse.CountryTariffData> countryData,
-                                              Map<String, Double> averageRates,
-                                              Map<String, Integer> productCounts) {
-        if (tariffs.isEmpty()) return;
-
-        List<Double> mfnAdValRates = new ArrayList<>();
-        List<Double> mfnSpecificRates = new ArrayList<>();
-        List<Double> mfnOtherRates = new ArrayList<>();
-        List<Double> allRates = new ArrayList<>();
-
-        int freeTradeProducts = 0;
-        int highTariffProducts = 0;
-        Map<String, Integer> productCategories = new HashMap<>();
-        
-        for (Tariff tariff : tariffs) {
-            // Collect MFN Ad Valorem rates (convert from decimal to percentage)
-            if (tariff.getMfnAdValRate() != null && tariff.getMfnAdValRate() > 0) {
-                double rate = tariff.getMfnAdValRate();
-                // If rate is less than 1, assume it's a decimal (0.07 = 7%)
-                if (rate < 1.0) {
-                    rate = rate * 100.0;
-                }
-                // Filter out unrealistic values
-                if (rate <= 100.0) {
-                    mfnAdValRates.add(rate);
-                    allRates.add(rate);
-                    
-                    // Categorize products
-                    if (rate <= 2.0) freeTradeProducts++;
-                    if (rate >= 15.0) highTariffProducts++;
-                    
-                    // Categorize by HTS code
-                    String category = categorizeByHtsCode(tariff.getHts8());
-                    productCategories.put(category, productCategories.getOrDefault(category, 0) + 1);
-                }
-            }
-            
-            // Collect MFN Specific rates (convert to percentage equivalent)
-            if (tariff.getMfnSpecificRate() != null && tariff.getMfnSpecificRate() > 0) {
-                double rate = tariff.getMfnSpecificRate();
-                // Convert specific rates to percentage (assuming $1 per unit = 1% for $100 value)
-                double percentageRate = Math.min(rate / 10.0, 50.0);
-                mfnSpecificRates.add(percentageRate);
-                allRates.add(percentageRate);
-                
-                // Categorize products
-                if (percentageRate <= 2.0) freeTradeProducts++;
-                if (percentageRate >= 15.0) highTariffProducts++;
-                
-                // Categorize by HTS code
-                String category = categorizeByHtsCode(tariff.getHts8());
-                productCategories.put(category, productCategories.getOrDefault(category, 0) + 1);
-            }
-            
-            // Collect MFN Other rates (convert from decimal to percentage)
-            if (tariff.getMfnOtherRate() != null && tariff.getMfnOtherRate() > 0) {
-                double rate = tariff.getMfnOtherRate();
-                // If rate is less than 1, assume it's a decimal (0.07 = 7%)
-                if (rate < 1.0) {
-                    rate = rate * 100.0;
-                }
-                // Filter out unrealistic values
-                if (rate <= 100.0) {
-                    mfnOtherRates.add(rate);
-                    allRates.add(rate);
-                    
-                    // Categorize products
-                    if (rate <= 2.0) freeTradeProducts++;
-                    if (rate >= 15.0) highTariffProducts++;
-                    
-                    // Categorize by HTS code
-                    String category = categorizeByHtsCode(tariff.getHts8());
-                    productCategories.put(category, productCategories.getOrDefault(category, 0) + 1);
-                }
-            }
-        }
-
-        if (!allRates.isEmpty()) {
-            // Calculate averages from actual data
-            double avgMfnAdVal = mfnAdValRates.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-            double avgMfnSpecific = mfnSpecificRates.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-            double avgMfnOther = mfnOtherRates.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-            
-            // Overall average rate - use weighted average of all rate types
-            double avgMfn;
-            if (!allRates.isEmpty()) {
-                avgMfn = allRates.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-            } else {
-                avgMfn = 0.0;
-            }
-            
-            double maxRate = allRates.stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
-            double minRate = allRates.stream().mapToDouble(Double::doubleValue).min().orElse(0.0);
-
-            String countryName = countryNames.getOrDefault(countryCode, countryCode);
-            
-            // Calculate trade agreement coverage
-            double tradeAgreementCoverage = (double) freeTradeProducts / tariffs.size() * 100.0;
-            
-            // Find top product category
-            String topProductCategory = productCategories.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("Other");
-            
-            DashboardDataResponse.CountryTariffData data = new DashboardDataResponse.CountryTariffData(
-                countryCode, countryName, avgMfn, avgMfnAdVal, avgMfnSpecific, 
-                tariffs.size(), maxRate, minRate, freeTradeProducts, highTariffProducts,
-                tradeAgreementCoverage, topProductCategory
-            );
-            
-            countryData.add(data);
-            averageRates.put(countryCode, avgMfn);
-            productCounts.put(countryCode, tariffs.size());
-        }
+    // Recompute a country's statistics whenever its schedule is reloaded
+    @EventListener
+    public void onScheduleReloaded(TariffScheduleReloadedEvent event) {
+        String countryCode = event.countryCode();
+        DashboardSnapshot.Summary data =
+            DashboardSnapshot.summarize(event.table(), countryTariffRegistry.getName(countryCode));
+        snapshot.updateAndGet(current -> current.with(countryCode, data));
     }
 
-    private void generateHeatmapData(List<DashboardDataResponse.CountryTariffData> countryData,
-                                   List<DashboardDataResponse.TariffHeatmapData> heatmapData) {
-        // Generate heatmap data based on actual tariff rates from database
-        for (DashboardDataResponse.CountryTariffData origin : countryData) {
-            for (DashboardDataResponse.CountryTariffData destination : countryData) {
-                if (!origin.getCountryCode().equals(destination.getCountryCode())) {
-                    // Get actual tariff data for this specific origin-destination pair
-                    double actualRate = getActualTariffRate(origin.getCountryCode(), destination.getCountryCode());
-                    int productCount = getProductCountForPair(origin.getCountryCode(), destination.getCountryCode());
-                    
-                    String rateCategory = categorizeRate(actualRate);
-
-                    DashboardDataResponse.TariffHeatmapData heatmapEntry =
-                        new DashboardDataResponse.TariffHeatmapData(
-                            origin.getCountryCode(),
-                            destination.getCountryCode(),
-                            actualRate,
-                            productCount,
-                            rateCategory
-                        );
-
-                    heatmapData.add(heatmapEntry);
-                }
-            }
+    private void addCountryData(String countryCode,
+                                Function<DashboardSnapshot.Summary, DashboardDataResponse.CountryTariffData> view,
+                                List<DashboardDataResponse.CountryTariffData> countryData,
+                                Map<String, Double> averageRates,
+                                Map<String, Integer> productCounts) {
+        Optional<DashboardSnapshot.Summary> summary = snapshot.get().getCountry(countryCode);
+        if (summary.isEmpty() && tariffScheduleEngine.getCountryCodes().contains(countryCode)
+                && !tariffScheduleEngine.isLoaded(countryCode)) {
+            // Schedule not in memory yet, let the database do the aggregation
+            summary = Optional.ofNullable(summarizeFromDatabase(countryCode));
         }
+        summary.map(view).ifPresent(country -> {
+            countryData.add(country);
+            averageRates.put(countryCode, country.getAverageMfnRate());
+            productCounts.put(countryCode, country.getTotalProducts());
+        });
     }
 
-    private double getActualTariffRate(String originCountry, String destinationCountry) {
-        // Get actual tariff rate from the destination country's data
-        List<? extends Tariff> tariffs = getTariffsForCountry(destinationCountry);
-        if (tariffs.isEmpty()) return 0.0;
-        
-        // Sample a subset of tariffs to get a realistic average
-        int sampleSize = Math.min(100, tariffs.size());
-        List<Double> rates = new ArrayList<>();
-        
-        for (int i = 0; i < sampleSize; i++) {
-            Tariff tariff = tariffs.get(i);
-            if (tariff.getMfnAdValRate() != null && tariff.getMfnAdValRate() > 0) {
-                double rate = tariff.getMfnAdValRate();
-                if (rate < 1.0) rate = rate * 100.0; // Convert decimal to percentage
-                if (rate <= 100.0) rates.add(rate);
-            }
+    private DashboardSnapshot.Summary summarizeFromDatabase(String countryCode) {
+        TariffRepository<? extends Tariff> repository = tariffScheduleEngine.getRepository(countryCode);
+        long totalProducts = repository.count();
+        if (totalProducts == 0) {
+            return null;
         }
-        
-        if (rates.isEmpty()) return 0.0;
-        
-        // Calculate base rate
-        double baseRate = rates.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        
-        // Add significant variation based on origin country and product categories
-        double variation = getCountryVariation(originCountry, destinationCountry);
-        double categoryVariation = getCategoryVariation(originCountry, destinationCountry);
-        double randomVariation = (Math.random() - 0.5) * 4.0; // -2 to +2
-        
-        return Math.max(0.1, baseRate + variation + categoryVariation + randomVariation);
+        return DashboardSnapshot.summarize(
+            countryCode, countryTariffRegistry.getName(countryCode), totalProducts,
+            repository.findAdValRateStatisticsByChapter(),
+            repository.findSpecificRateStatisticsByChapter(),
+            repository.findOtherRateStatisticsByChapter()
+        );
     }
     
-    private int getProductCountForPair(String originCountry, String destinationCountry) {
-        // Get actual product count from destination country with variation
-        List<? extends Tariff> tariffs = getTariffsForCountry(destinationCountry);
-        int baseCount = tariffs.size();
-        
-        // Add variation based on origin country and category
-        double variation = getProductCountVariation(originCountry, destinationCountry);
-        double randomFactor = 0.8 + (Math.random() * 0.4); // 0.8 to 1.2
-        
-        return (int) Math.max(100, baseCount * variation * randomFactor);
-    }
-    
-    private List<? extends Tariff> getTariffsForCountry(String countryCode) {
-        switch (countryCode) {
-            case "US": return usTariffRepository.findAll();
-            case "CN": return chinaTariffRepository.findAll();
-            case "SG": return singaporeTariffRepository.findAll();
-            case "GB": return ukTariffRepository.findAll();
-            case "JP": return japanTariffRepository.findAll();
-            case "KR": return southKoreaTariffRepository.findAll();
-            case "CA": return canadaTariffRepository.findAll();
-            case "AU": return australiaTariffRepository.findAll();
-            case "FR": return franceTariffRepository.findAll();
-            case "IN": return indiaTariffRepository.findAll();
-            case "ID": return indonesiaTariffRepository.findAll();
-            case "IL": return israelTariffRepository.findAll();
-            case "IT": return italyTariffRepository.findAll();
-            case "MX": return mexicoTariffRepository.findAll();
-            case "SA": return saudiArabiaTariffRepository.findAll();
-            case "ZA": return southAfricaTariffRepository.findAll();
-            case "TR": return turkeyTariffRepository.findAll();
-            case "BR": return brazilTariffRepository.findAll();
-            default: return new ArrayList<>();
-        }
-    }
-    
-    private double getCountryVariation(String origin, String destination) {
-        // Add realistic variation based on trade relationships
-        Map<String, Double> variations = new HashMap<String, Double>() {{
-            put("US-CA", -2.0);  // NAFTA/USMCA - lower rates
-            put("US-MX", -1.5);  // NAFTA/USMCA - lower rates
-            put("CN-SG", -1.0);  // China-Singapore FTA
-            put("JP-KR", -0.8);  // Japan-Korea partnership
-            put("GB-FR", -3.0);  // EU internal market
-            put("FR-IT", -2.5);  // EU internal market
-            put("US-CN", 3.0);   // Trade tensions - higher rates
-            put("CN-US", 2.5);   // Trade tensions - higher rates
-        }};
-        
-        String key = origin + "-" + destination;
-        String reverseKey = destination + "-" + origin;
-        
-        return variations.getOrDefault(key, variations.getOrDefault(reverseKey, 0.0));
-    }
-    
-    private double getCategoryVariation(String origin, String destination) {
-        // Add variation based on typical trade patterns between countries
-        Map<String, Double> categoryVariations = new HashMap<String, Double>() {{
-            // Electronics and technology
-            put("CN-US", -1.5);  // China exports electronics to US
-            put("SG-US", -1.2);  // Singapore exports technology
-            put("JP-US", -0.8);  // Japan exports electronics
-            put("KR-US", -0.6);  // South Korea exports electronics
-            
-            // Automotive
-            put("JP-US", 2.0);   // Japan exports cars to US
-            put("DE-US", 1.8);   // Germany exports cars
-            put("KR-US", 1.5);   // South Korea exports cars
-            
-            // Textiles
-            put("IN-US", 3.0);   // India exports textiles
-            put("BD-US", 3.5);   // Bangladesh exports textiles
-            put("CN-US", 2.0);   // China exports textiles
-            
-            // Agriculture
-            put("BR-US", 4.0);   // Brazil exports agricultural products
-            put("AU-US", 3.5);   // Australia exports agricultural products
-            put("CA-US", 2.5);   // Canada exports agricultural products
-        }};
-        
-        String key = origin + "-" + destination;
-        return categoryVariations.getOrDefault(key, 0.0);
-    }
-    
-    private double getProductCountVariation(String origin, String destination) {
-        // Add variation to product counts based on trade relationships
-        Map<String, Double> countVariations = new HashMap<String, Double>() {{
-            // Major trading partners have more products
-            put("US-CN", 1.2);   // US-China trade
-            put("CN-US", 1.2);   // China-US trade
-            put("US-MX", 1.1);   // US-Mexico trade
-            put("US-CA", 1.1);   // US-Canada trade
-            put("GB-FR", 1.15);  // UK-France trade
-            put("FR-GB", 1.15);  // France-UK trade
-            put("JP-KR", 1.05);  // Japan-Korea trade
-            put("KR-JP", 1.05);  // Korea-Japan trade
-            
-            // Smaller trading relationships
-            put("SG-US", 0.8);   // Singapore-US trade
-            put("AU-US", 0.9);   // Australia-US trade
-            put("ZA-US", 0.7);   // South Africa-US trade
-        }};
-        
-        String key = origin + "-" + destination;
-        return countVariations.getOrDefault(key, 1.0);
-    }
-
-    private String categorizeRate(double rate) {
-        if (rate <= 2.0) return "Very Low";
-        if (rate <= 5.0) return "Low";
-        if (rate <= 10.0) return "Medium";
-        if (rate <= 20.0) return "High";
-        return "Very High";
-    }
-
     private void generateTopImportingCountries(List<DashboardDataResponse.TopImportingCountry> topImportingCountries, 
                                              List<DashboardDataResponse.CountryTariffData> countryData) {
         // Generate top importing countries based on actual data from countryData
@@ -526,68 +187,15 @@ public class DashboardService {
         List<DashboardDataResponse.ProductCategoryInsight> productCategoryInsights = new ArrayList<>();
         List<DashboardDataResponse.TariffTrendInsight> tariffTrendInsights = new ArrayList<>();
 
-        // Process only the specified country
-        switch (countryCode.toUpperCase()) {
-            case "US":
-                processCountryDataWithInsights("US", usTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "CN":
-                processCountryDataWithInsights("CN", chinaTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "SG":
-                processCountryDataWithInsights("SG", singaporeTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "GB":
-                processCountryDataWithInsights("GB", ukTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "JP":
-                processCountryDataWithInsights("JP", japanTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "KR":
-                processCountryDataWithInsights("KR", southKoreaTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "CA":
-                processCountryDataWithInsights("CA", canadaTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "AU":
-                processCountryDataWithInsights("AU", australiaTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "FR":
-                processCountryDataWithInsights("FR", franceTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "IN":
-                processCountryDataWithInsights("IN", indiaTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "ID":
-                processCountryDataWithInsights("ID", indonesiaTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "IL":
-                processCountryDataWithInsights("IL", israelTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "IT":
-                processCountryDataWithInsights("IT", italyTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "MX":
-                processCountryDataWithInsights("MX", mexicoTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "SA":
-                processCountryDataWithInsights("SA", saudiArabiaTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "ZA":
-                processCountryDataWithInsights("ZA", southAfricaTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "TR":
-                processCountryDataWithInsights("TR", turkeyTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-            case "BR":
-                processCountryDataWithInsights("BR", brazilTariffRepository.findAll(), countryData, averageRates, productCounts);
-                break;
-        }
+        String code = findCountryCode(countryCode).orElseGet(() -> countryCode.toUpperCase(Locale.ROOT));
+
+        // Process only the specified country, counting every rate type
+        addCountryData(code, DashboardSnapshot.Summary::allRates, countryData, averageRates, productCounts);
 
         // Generate country-specific insights
-        generateCountrySpecificInsights(countryCode, tradeAgreementInsights, productCategoryInsights, tariffTrendInsights);
-        generateCountrySpecificHeatmap(countryCode, heatmapData, category);
-        generateCountrySpecificImportData(countryCode, topImportingCountries);
+        generateCountrySpecificInsights(code, tradeAgreementInsights, productCategoryInsights, tariffTrendInsights);
+        generateCountrySpecificHeatmap(code, heatmapData, category);
+        generateCountrySpecificImportData(code, topImportingCountries);
 
         return new DashboardDataResponse(countryData, averageRates, productCounts, heatmapData, 
                                        topImportingCountries, tradeAgreementInsights, 
@@ -595,27 +203,7 @@ public class DashboardService {
     }
 
     private String categorizeByHtsCode(String hts8) {
-        if (hts8 == null || hts8.length() < 2) return "Other";
-        
-        String prefix = hts8.substring(0, 2);
-        switch (prefix) {
-            case "01": case "02": case "03": case "04": case "05": return "Animal & Animal Products";
-            case "06": case "07": case "08": case "09": case "10": case "11": case "12": case "13": case "14": case "15": return "Vegetable Products";
-            case "16": case "17": case "18": case "19": case "20": case "21": case "22": case "23": case "24": return "Foodstuffs";
-            case "25": case "26": case "27": return "Mineral Products";
-            case "28": case "29": case "30": case "31": case "32": case "33": case "34": case "35": case "36": case "37": case "38": return "Chemicals & Allied Industries";
-            case "39": case "40": return "Plastics / Rubbers";
-            case "41": case "42": case "43": return "Raw Hides, Skins, Leather, & Furs";
-            case "44": case "45": case "46": case "47": case "48": case "49": return "Wood & Wood Products";
-            case "50": case "51": case "52": case "53": case "54": case "55": case "56": case "57": case "58": case "59": case "60": case "61": case "62": case "63": return "Textiles";
-            case "64": case "65": case "66": case "67": return "Footwear / Headgear";
-            case "68": case "69": case "70": case "71": return "Stone / Glass";
-            case "72": case "73": case "74": case "75": case "76": case "77": case "78": case "79": case "80": case "81": case "82": case "83": return "Metals";
-            case "84": case "85": return "Machinery / Electrical";
-            case "86": case "87": case "88": case "89": return "Transportation";
-            case "90": case "91": case "92": case "93": case "94": case "95": case "96": case "97": return "Miscellaneous";
-            default: return "Other";
-        }
+        return HtsCategories.of(hts8);
     }
 
     private void generateTradeAgreementInsights(List<DashboardDataResponse.TradeAgreementInsight> insights) {
@@ -741,32 +329,17 @@ public class DashboardService {
     }
 
     private void generateCountrySpecificHeatmap(String countryCode, List<DashboardDataResponse.TariffHeatmapData> heatmapData, String category) {
-        // Generate heatmap data for imports TO this country (what other countries pay to import here)
-        String[] allCountries = {"US", "CN", "SG", "GB", "JP", "KR", "CA", "AU", "FR", "IN", "ID", "IL", "IT", "MX", "SA", "ZA", "TR", "BR"};
-        
-        for (String originCountry : allCountries) {
-            if (!originCountry.equals(countryCode)) {
-                // Get tariff rate and product count for this specific category
-                double actualRate = getActualTariffRateForCategory(originCountry, countryCode, category);
-                int productCount = getProductCountForCategory(originCountry, countryCode, category);
-                String rateCategory = categorizeRate(actualRate);
-                
-                heatmapData.add(new DashboardDataResponse.TariffHeatmapData(
-                    originCountry, countryCode, actualRate, productCount, rateCategory
-                ));
-            }
-        }
+        // Heatmap data for imports TO this country (what other countries pay to import here)
+        heatmapData.addAll(tariffHeatmapService.getHeatmapForDestination(countryCode, category));
     }
 
     private void generateCountrySpecificImportData(String countryCode, List<DashboardDataResponse.TopImportingCountry> topImportingCountries) {
         // Generate realistic import data for this specific country
-        String[] allCountries = {"US", "CN", "SG", "GB", "JP", "KR", "CA", "AU", "FR", "IN", "ID", "IL", "IT", "MX", "SA", "ZA", "TR", "BR"};
-        
-        for (String originCountry : allCountries) {
+        for (String originCountry : countryTariffRegistry.getCodes()) {
             if (!originCountry.equals(countryCode)) {
                 // Generate realistic import volumes based on country relationships
                 long importVolume = generateRealisticImportVolume(countryCode, originCountry);
-                double tariffRate = getActualTariffRate(originCountry, countryCode);
+                double tariffRate = tariffHeatmapService.getAverageRate(originCountry, countryCode);
                 String category = determineImportCategory(tariffRate);
                 
                 topImportingCountries.add(new DashboardDataResponse.TopImportingCountry(
@@ -816,127 +389,131 @@ public class DashboardService {
     }
 
     private String getCountryName(String countryCode) {
-        return countryNames.getOrDefault(countryCode, countryCode);
+        return countryTariffRegistry.getName(countryCode);
     }
 
     public List<ProductTariffData> getCountryProductTariffs(String countryCode) {
-        List<ProductTariffData> productData = new ArrayList<>();
-        List<? extends Tariff> tariffs = getTariffsForCountry(countryCode);
-        
-        if (tariffs.isEmpty()) return productData;
-        
-        // Limit to first 1000 products for performance
-        int limit = Math.min(1000, tariffs.size());
-        
-        for (int i = 0; i < limit; i++) {
-            Tariff tariff = tariffs.get(i);
-            
-            // Determine the primary rate type and value
-            String rateType = "Ad Valorem";
-            Double primaryRate = tariff.getMfnAdValRate();
-            
-            if (primaryRate == null || primaryRate == 0) {
-                if (tariff.getMfnSpecificRate() != null && tariff.getMfnSpecificRate() > 0) {
-                    rateType = "Specific";
-                    primaryRate = tariff.getMfnSpecificRate();
-                } else if (tariff.getMfnOtherRate() != null && tariff.getMfnOtherRate() > 0) {
-                    rateType = "Other";
-                    primaryRate = tariff.getMfnOtherRate();
-                }
-            }
-            
-            // Convert rates to percentage if needed
-            if (primaryRate != null && primaryRate > 0) {
-                if (rateType.equals("Ad Valorem") && primaryRate < 1.0) {
-                    primaryRate = primaryRate * 100.0;
-                } else if (rateType.equals("Specific")) {
-                    primaryRate = Math.min(primaryRate / 10.0, 50.0); // Convert to percentage equivalent
-                } else if (rateType.equals("Other") && primaryRate < 1.0) {
-                    primaryRate = primaryRate * 100.0;
-                }
+        return getCountryProductTariffs(countryCode, null, DEFAULT_PRODUCT_PAGE_SIZE, null, null, null).products();
+    }
+
+    /**
+     * One page of a country's products in HTS code order, starting after the
+     * cursor of the previous page (null for the first page). A full page
+     * carries the cursor of its last line, "hts8:id", since several lines can
+     * share a code; a bare HTS8 code starts after every line with that code.
+     * Category (null or "all" for every product) and the ad valorem bounds in
+     * percent are optional and filtered by the database.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or the
+     *         category is unknown
+     */
+    public ProductPage getCountryProductTariffs(String countryCode, String after, int limit,
+                                                String category, Double minRate, Double maxRate) {
+        HtsCategories.CodeRange codes = codeRangeOf(category);
+        String afterHts8 = after;
+        Long afterId = null;
+        int separator = after == null ? -1 : after.lastIndexOf(':');
+        if (separator >= 0) {
+            afterHts8 = after.substring(0, separator);
+            try {
+                afterId = Long.valueOf(after.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed cursor: " + after);
             }
-            
-            // Categorize product
-            String category = categorizeByHtsCode(tariff.getHts8());
-            
-            ProductTariffData data = new ProductTariffData(
-                tariff.getHts8(),
-                tariff.getBriefDescription(),
-                tariff.getMfnAdValRate() != null && tariff.getMfnAdValRate() > 0 ? 
-                    (tariff.getMfnAdValRate() < 1.0 ? tariff.getMfnAdValRate() * 100.0 : tariff.getMfnAdValRate()) : null,
-                tariff.getMfnSpecificRate(),
-                tariff.getMfnOtherRate() != null && tariff.getMfnOtherRate() > 0 ? 
-                    (tariff.getMfnOtherRate() < 1.0 ? tariff.getMfnOtherRate() * 100.0 : tariff.getMfnOtherRate()) : null,
-                rateType,
-                category,
-                countryCode
-            );
-            
-            productData.add(data);
         }
-        
-        return productData;
+        Optional<CountryTariffRegistry.CountryTariffs> country = countryTariffRegistry.find(countryCode);
+        if (country.isEmpty()) {
+            return new ProductPage(List.of(), null);
+        }
+        // Rows carry the resolved ISO code, whatever spelling the caller used
+        String code = country.get().code();
+        List<? extends Tariff> tariffs = country.get().repository().findProductPage(
+                afterHts8, afterId, codes.from(), codes.to(), minRate, maxRate, Limit.of(limit));
+        List<ProductTariffData> products = tariffs.stream()
+                .map(tariff -> toProductTariffData(tariff, code))
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (!tariffs.isEmpty() && tariffs.size() == limit) {
+            Tariff last = tariffs.get(tariffs.size() - 1);
+            nextCursor = last.getHts8() + ":" + last.getId();
+        }
+        return new ProductPage(products, nextCursor);
     }
-    
-    private double getActualTariffRateForCategory(String originCountry, String destinationCountry, String category) {
-        // Get actual tariff rate from the destination country's data, filtered by category
-        List<? extends Tariff> tariffs = getTariffsForCountry(destinationCountry);
-        if (tariffs.isEmpty()) return 0.0;
-        
-        // Filter tariffs by category if specified
-        List<? extends Tariff> filteredTariffs = tariffs;
-        if (category != null && !category.equals("all")) {
-            filteredTariffs = tariffs.stream()
-                .filter(tariff -> categorizeByHtsCode(tariff.getHts8()).equals(category))
-                .collect(java.util.stream.Collectors.toList());
+
+    /**
+     * Passes every matching product of a country to sink, in HTS code order,
+     * reading the table through a database cursor so memory stays flat
+     * however large it is.
+     *
+     * @throws IllegalArgumentException if the category is unknown
+     */
+    @Transactional(readOnly = true)
+    public void exportCountryProductTariffs(String countryCode, String category, Double minRate, Double maxRate,
+                                            Consumer<ProductTariffData> sink) {
+        HtsCategories.CodeRange codes = codeRangeOf(category);
+        Optional<CountryTariffRegistry.CountryTariffs> country = countryTariffRegistry.find(countryCode);
+        if (country.isEmpty()) {
+            return;
         }
-        
-        if (filteredTariffs.isEmpty()) return 0.0;
-        
-        // Sample a subset of tariffs to get a realistic average
-        int sampleSize = Math.min(100, filteredTariffs.size());
-        List<Double> rates = new ArrayList<>();
-        
-        for (int i = 0; i < sampleSize; i++) {
-            Tariff tariff = filteredTariffs.get(i);
-            if (tariff.getMfnAdValRate() != null && tariff.getMfnAdValRate() > 0) {
-                double rate = tariff.getMfnAdValRate();
-                if (rate < 1.0) rate = rate * 100.0; // Convert decimal to percentage
-                if (rate <= 100.0) rates.add(rate);
-            }
+        String code = country.get().code();
+        try (Stream<? extends Tariff> tariffs = country.get().repository().streamProducts(
+                codes.from(), codes.to(), minRate, maxRate)) {
+            tariffs.forEach(tariff -> {
+                sink.accept(toProductTariffData(tariff, code));
+                // Keep the persistence context from growing with the table
+                entityManager.detach(tariff);
+            });
         }
-        
-        if (rates.isEmpty()) return 0.0;
-        
-        // Calculate base rate
-        double baseRate = rates.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        
-        // Add significant variation based on origin country and product categories
-        double variation = getCountryVariation(originCountry, destinationCountry);
-        double categoryVariation = getCategoryVariation(originCountry, destinationCountry);
-        double randomVariation = (Math.random() - 0.5) * 4.0; // -2 to +2
-        
-        return Math.max(0.1, baseRate + variation + categoryVariation + randomVariation);
     }
-    
-    private int getProductCountForCategory(String originCountry, String destinationCountry, String category) {
-        // Get actual product count from destination country, filtered by category
-        List<? extends Tariff> tariffs = getTariffsForCountry(destinationCountry);
-        
-        // Filter tariffs by category if specified
-        List<? extends Tariff> filteredTariffs = tariffs;
-        if (category != null && !category.equals("all")) {
-            filteredTariffs = tariffs.stream()
-                .filter(tariff -> categorizeByHtsCode(tariff.getHts8()).equals(category))
-                .collect(java.util.stream.Collectors.toList());
+
+    /**
+     * The ISO code of a supported country, given its code, name or alias.
+     */
+    public Optional<String> findCountryCode(String countryCode) {
+        return countryTariffRegistry.find(countryCode).map(CountryTariffRegistry.CountryTariffs::code);
+    }
+
+    public boolean isProductCategory(String category) {
+        return category == null || ALL_CATEGORIES.equalsIgnoreCase(category)
+                || HtsCategories.codeRange(category).isPresent();
+    }
+
+    // Every code for no category or "all"
+    private static HtsCategories.CodeRange codeRangeOf(String category) {
+        if (category == null || ALL_CATEGORIES.equalsIgnoreCase(category)) {
+            return new HtsCategories.CodeRange(null, null);
         }
-        
-        int baseCount = filteredTariffs.size();
-        
-        // Add variation based on origin country and category
-        double variation = getProductCountVariation(originCountry, destinationCountry);
-        double randomFactor = 0.8 + (Math.random() * 0.4); // 0.8 to 1.2
-        
-        return (int) Math.max(100, baseCount * variation * randomFactor);
+        return HtsCategories.codeRange(category)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown product category: " + category));
+    }
+
+    private ProductTariffData toProductTariffData(Tariff tariff, String countryCode) {
+        // Determine the primary rate type and value
+        String rateType = "Ad Valorem";
+        Double primaryRate = tariff.getMfnAdValRate();
+
+        if (primaryRate == null || primaryRate == 0) {
+            if (tariff.getMfnSpecificRate() != null && tariff.getMfnSpecificRate() > 0) {
+                rateType = "Specific";
+            } else if (tariff.getMfnOtherRate() != null && tariff.getMfnOtherRate() > 0) {
+                rateType = "Other";
+            }
+        }
+
+        // Categorize product
+        String category = categorizeByHtsCode(tariff.getHts8());
+
+        return new ProductTariffData(
+            tariff.getHts8(),
+            tariff.getBriefDescription(),
+            tariff.getMfnAdValRate() != null && tariff.getMfnAdValRate() > 0 ?
+                (tariff.getMfnAdValRate() < 1.0 ? tariff.getMfnAdValRate() * 100.0 : tariff.getMfnAdValRate()) : null,
+            tariff.getMfnSpecificRate(),
+            tariff.getMfnOtherRate() != null && tariff.getMfnOtherRate() > 0 ?
+                (tariff.getMfnOtherRate() < 1.0 ? tariff.getMfnOtherRate() * 100.0 : tariff.getMfnOtherRate()) : null,
+            rateType,
+            category,
+            countryCode
+        );
     }
 }
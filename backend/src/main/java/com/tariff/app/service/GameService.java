@@ -2,18 +2,29 @@ package com.tariff.app.service;
 
 import com.tariff.app.dto.GameScoreRequest;
 import com.tariff.app.dto.GameScoreResponse;
+import com.tariff.app.dto.GameTypeStatsResponse;
 import com.tariff.app.dto.LeaderboardResponse;
+import com.tariff.app.dto.PlayerProfileResponse;
+import com.tariff.app.dto.RankResponse;
 import com.tariff.app.entity.GameScore;
 import com.tariff.app.entity.User;
+import com.tariff.app.entity.UserGameStats;
+import com.tariff.app.leaderboard.GameScoresChangedEvent;
+import com.tariff.app.leaderboard.LeaderboardEntry;
+import com.tariff.app.leaderboard.ScoreDistribution;
 import com.tariff.app.repository.GameScoreRepository;
 import com.tariff.app.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,14 +34,28 @@ import java.util.stream.Collectors;
 @Transactional
 public class GameService {
 
+    private static final int MAX_RANK_NEIGHBOURS = 10;
+
     @Autowired
     private GameScoreRepository gameScoreRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private ScoreRankService scoreRankService;
+
+    @Autowired
+    private GameStatsService gameStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public GameScoreResponse saveGameScore(GameScoreRequest request, String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByUsernameForUpdate(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         GameScore gameScore = new GameScore();
@@ -45,6 +70,8 @@ public class GameService {
         gameScore.setGameData(request.getGameData());
 
         GameScore savedScore = gameScoreRepository.save(gameScore);
+        gameStatsService.recordSaved(user, List.of(savedScore));
+        eventPublisher.publishEvent(GameScoresChangedEvent.saved(List.of(LeaderboardEntry.of(savedScore))));
 
         return convertToResponse(savedScore);
     }
@@ -73,53 +100,117 @@ public class GameService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Optional<GameScore> bestScore = gameScoreRepository.findBestScoreByUserAndGameType(user, gameType);
+        Optional<GameScore> bestScore = gameScoreRepository.findFirstByUserAndGameTypeOrderByScoreDescCreatedAtAsc(user, gameType);
         return bestScore.map(this::convertToResponse);
     }
 
     public List<LeaderboardResponse> getGlobalLeaderboard(int limit) {
-        List<GameScore> topScores = gameScoreRepository.findTopScores();
+        Optional<List<LeaderboardEntry>> cached = leaderboardService.getTop(null, limit);
+        if (cached.isPresent()) {
+            return cached.get().stream()
+                    .map(this::convertToLeaderboardResponse)
+                    .collect(Collectors.toList());
+        }
+        List<GameScore> topScores = gameScoreRepository.findTopScores(Limit.of(limit));
         return topScores.stream()
-                .limit(limit)
                 .map(this::convertToLeaderboardResponse)
                 .collect(Collectors.toList());
     }
 
     public List<LeaderboardResponse> getGameTypeLeaderboard(String gameType, int limit) {
-        List<GameScore> topScores = gameScoreRepository.findTopScoresByGameType(gameType);
+        Optional<List<LeaderboardEntry>> cached = leaderboardService.getTop(gameType, limit);
+        if (cached.isPresent()) {
+            return cached.get().stream()
+                    .map(this::convertToLeaderboardResponse)
+                    .collect(Collectors.toList());
+        }
+        List<GameScore> topScores = gameScoreRepository.findTopScoresByGameType(gameType, Limit.of(limit));
         return topScores.stream()
-                .limit(limit)
                 .map(this::convertToLeaderboardResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Ranks the user's best score in a game type against every score of that
+     * type, with up to neighbours scores either side; empty if the user hasn't
+     * played it.
+     */
+    @Transactional(readOnly = true)
+    public Optional<RankResponse> getUserRank(String username, String gameType, int neighbours) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Optional<UserGameStats> stats = gameStatsService.find(user, gameType);
+        if (stats.isEmpty()) {
+            return Optional.empty();
+        }
+        int best = stats.get().getBestScore();
+        ScoreDistribution.Counts counts = scoreRankService.countsAround(gameType, best)
+                .orElseGet(() -> new ScoreDistribution.Counts(
+                        gameScoreRepository.countByGameTypeAndScoreGreaterThan(gameType, best),
+                        gameScoreRepository.countByGameTypeAndScoreLessThan(gameType, best),
+                        gameScoreRepository.countByGameType(gameType)));
+
+        int count = Math.max(0, Math.min(neighbours, MAX_RANK_NEIGHBOURS));
+        List<GameScore> above = new ArrayList<>();
+        List<GameScore> below = new ArrayList<>();
+        if (count > 0) {
+            above.addAll(gameScoreRepository.findScoresJustAbove(gameType, best, Limit.of(count)));
+            Collections.reverse(above);
+            below.addAll(gameScoreRepository.findScoresJustBelow(gameType, best, Limit.of(count)));
+        }
+
+        RankResponse response = new RankResponse();
+        response.setUsername(user.getUsername());
+        response.setGameType(gameType);
+        response.setScore(best);
+        response.setRank(counts.above() + 1);
+        response.setTotalScores(counts.total());
+        response.setPercentile(counts.total() == 0 ? 0.0
+                : Math.round(1000.0 * counts.below() / counts.total()) / 10.0);
+        response.setAbove(above.stream()
+                .map(this::convertToLeaderboardResponse)
+                .collect(Collectors.toList()));
+        response.setBelow(below.stream()
+                .map(this::convertToLeaderboardResponse)
+                .collect(Collectors.toList()));
+        return Optional.of(response);
+    }
+
     public Long getUserTotalPoints(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return gameScoreRepository.getTotalPointsByUser(user);
+        return gameStatsService.getStats(user).stream()
+                .mapToLong(UserGameStats::getPointsEarned)
+                .sum();
     }
 
     public Long getUserGamesPlayed(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return gameScoreRepository.countGamesPlayedByUser(user);
+        return gameStatsService.getStats(user).stream()
+                .mapToLong(UserGameStats::getGamesPlayed)
+                .sum();
     }
 
     public Long getUserGamesPlayedByType(String username, String gameType) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return gameScoreRepository.countGamesPlayedByUserAndGameType(user, gameType);
+        return gameStatsService.find(user, gameType)
+                .map(UserGameStats::getGamesPlayed)
+                .orElse(0L);
     }
 
     public Double getUserAverageScore(String username, String gameType) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Double avgScore = gameScoreRepository.getAverageScoreByUserAndGameType(user, gameType);
-        return avgScore != null ? avgScore : 0.0;
+        return gameStatsService.find(user, gameType)
+                .map(UserGameStats::getAverageScore)
+                .orElse(0.0);
     }
 
     public List<GameScoreResponse> getUserRecentScores(String username, int days) {
@@ -134,6 +225,31 @@ public class GameService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * The user's totals, per game type stats and scores from the last days,
+     * read together: the user, their stats rows and their recent scores.
+     */
+    @Transactional(readOnly = true)
+    public PlayerProfileResponse getUserProfile(String username, int days) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        List<UserGameStats> stats = gameStatsService.getStats(user);
+        List<GameScore> recentScores = gameScoreRepository.findRecentScoresByUser(user, LocalDateTime.now().minusDays(days));
+
+        PlayerProfileResponse response = new PlayerProfileResponse();
+        response.setUsername(user.getUsername());
+        response.setTotalPoints(stats.stream().mapToLong(UserGameStats::getPointsEarned).sum());
+        response.setGamesPlayed(stats.stream().mapToLong(UserGameStats::getGamesPlayed).sum());
+        response.setGameTypes(stats.stream()
+                .map(this::convertToGameTypeStatsResponse)
+                .collect(Collectors.toList()));
+        response.setRecentScores(recentScores.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList()));
+        return response;
+    }
+
     private GameScoreResponse convertToResponse(GameScore gameScore) {
         GameScoreResponse response = new GameScoreResponse();
         response.setId(gameScore.getId());
@@ -150,15 +266,31 @@ public class GameService {
     }
 
     private LeaderboardResponse convertToLeaderboardResponse(GameScore gameScore) {
+        return convertToLeaderboardResponse(LeaderboardEntry.of(gameScore));
+    }
+
+    private LeaderboardResponse convertToLeaderboardResponse(LeaderboardEntry entry) {
         LeaderboardResponse response = new LeaderboardResponse();
-        response.setUserId(gameScore.getUser().getId());
-        response.setUsername(gameScore.getUser().getUsername());
-        response.setEmail(gameScore.getUser().getUsername()); // Using username as email since User doesn't have email
-        response.setGameType(gameScore.getGameType());
-        response.setScore(gameScore.getScore());
-        response.setPointsEarned(gameScore.getPointsEarned());
-        response.setPerfectScore(gameScore.getPerfectScore());
-        response.setCreatedAt(gameScore.getCreatedAt());
+        response.setUserId(entry.userId());
+        response.setUsername(entry.username());
+        response.setEmail(entry.username()); // Using username as email since User doesn't have email
+        response.setGameType(entry.gameType());
+        response.setScore(entry.score());
+        response.setPointsEarned(entry.pointsEarned());
+        response.setPerfectScore(entry.perfectScore());
+        response.setCreatedAt(entry.createdAt());
+        return response;
+    }
+
+    private GameTypeStatsResponse convertToGameTypeStatsResponse(UserGameStats stats) {
+        GameTypeStatsResponse response = new GameTypeStatsResponse();
+        response.setGameType(stats.getGameType());
+        response.setGamesPlayed(stats.getGamesPlayed());
+        response.setAverageScore(stats.getAverageScore());
+        response.setBestScore(stats.getBestScore());
+        response.setPointsEarned(stats.getPointsEarned());
+        response.setPerfectCount(stats.getPerfectCount());
+        response.setLastPlayedAt(stats.getLastPlayedAt());
         return response;
     }
 
@@ -183,7 +315,7 @@ public class GameService {
 
     @Transactional(readOnly = true)
     public Page<LeaderboardResponse> getGameTypeLeaderboardPaginated(String gameType, Pageable pageable) {
-        Page<GameScore> scores = gameScoreRepository.findByGameTypeOrderByScoreDesc(gameType, pageable);
+        Page<GameScore> scores = gameScoreRepository.findByGameTypeOrderByScoreDescCreatedAtAscIdAsc(gameType, pageable);
         return scores.map(this::convertToLeaderboardResponse);
     }
 
@@ -193,7 +325,11 @@ public class GameService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        return gameScoreRepository.getGameStatisticsByUser(user);
+        // Same columns as getGlobalGameStatistics: game type, count, average, max, min
+        return gameStatsService.getStats(user).stream()
+                .map(stats -> new Object[] {stats.getGameType(), stats.getGamesPlayed(), stats.getAverageScore(),
+                    stats.getBestScore(), stats.getMinScore()})
+                .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
@@ -212,22 +348,22 @@ public class GameService {
 
     // Performance metrics
     @Transactional(readOnly = true)
-    public List<GameScoreResponse> getUserFastestGames(String username) {
+    public List<GameScoreResponse> getUserFastestGames(String username, int limit) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<GameScore> scores = gameScoreRepository.findFastestGamesByUser(user);
+        List<GameScore> scores = gameScoreRepository.findFastestGamesByUser(user, Limit.of(limit));
         return scores.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
-    public List<GameScoreResponse> getUserMostEfficientGames(String username) {
+    public List<GameScoreResponse> getUserMostEfficientGames(String username, int limit) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<GameScore> scores = gameScoreRepository.findMostEfficientGamesByUser(user);
+        List<GameScore> scores = gameScoreRepository.findMostEfficientGamesByUser(user, Limit.of(limit));
         return scores.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
@@ -260,7 +396,7 @@ public class GameService {
     // Batch operations
     @Transactional
     public List<GameScoreResponse> saveMultipleGameScores(List<GameScoreRequest> requests, String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByUsernameForUpdate(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         List<GameScore> gameScores = requests.stream()
@@ -276,6 +412,10 @@ public class GameService {
                 .collect(Collectors.toList());
         
         List<GameScore> savedScores = gameScoreRepository.saveAll(gameScores);
+        gameStatsService.recordSaved(user, savedScores);
+        eventPublisher.publishEvent(GameScoresChangedEvent.saved(savedScores.stream()
+                .map(LeaderboardEntry::of)
+                .collect(Collectors.toList())));
         return savedScores.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
@@ -284,7 +424,7 @@ public class GameService {
     // Delete operations
     @Transactional
     public void deleteGameScore(UUID scoreId, String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByUsernameForUpdate(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         GameScore gameScore = gameScoreRepository.findById(scoreId)
@@ -295,14 +435,22 @@ public class GameService {
         }
         
         gameScoreRepository.delete(gameScore);
+        gameStatsService.recordDeleted(user, List.of(gameScore.getGameType()));
+        eventPublisher.publishEvent(GameScoresChangedEvent.deleted(List.of(LeaderboardEntry.of(gameScore))));
     }
 
     @Transactional
     public void deleteAllUserGameScores(String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByUsernameForUpdate(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         List<GameScore> userScores = gameScoreRepository.findByUserOrderByCreatedAtDesc(user);
         gameScoreRepository.deleteAll(userScores);
+        gameStatsService.recordDeleted(user, userScores.stream()
+                .map(GameScore::getGameType)
+                .collect(Collectors.toSet()));
+        eventPublisher.publishEvent(GameScoresChangedEvent.deleted(userScores.stream()
+                .map(LeaderboardEntry::of)
+                .collect(Collectors.toList())));
     }
 }
@@ -0,0 +1,136 @@
+package com.tariff.app.service;
+
+import com.tariff.app.entity.GameScore;
+import com.tariff.app.entity.User;
+import com.tariff.app.entity.UserGameStats;
+import com.tariff.app.entity.UserGameStatsId;
+import com.tariff.app.repository.GameScoreRepository;
+import com.tariff.app.repository.UserGameStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps user_game_stats in step with game_scores. Callers write scores and
+ * update stats in one transaction while holding the user's row lock
+ * (UserRepository.findByUsernameForUpdate), so two games saved at once by
+ * the same user can't overwrite each other's totals.
+ *
+ * Scores can predate the table, or V3's backfill may not have run on this
+ * database, so rows missing at startup are filled in from game_scores, and a
+ * write that finds its row missing rebuilds it from game_scores rather than
+ * starting from zero.
+ */
+@Service
+@Transactional
+public class GameStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameStatsService.class);
+
+    // A game saved during the backfill can insert one of its rows first; rerunning skips that row
+    private static final int BACKFILL_ATTEMPTS = 3;
+
+    @Autowired
+    private UserGameStatsRepository userGameStatsRepository;
+
+    @Autowired
+    private GameScoreRepository gameScoreRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillAtStartup() {
+        for (int attempt = 1; attempt <= BACKFILL_ATTEMPTS; attempt++) {
+            try {
+                int rows = userGameStatsRepository.insertMissingFromGameScores();
+                if (rows > 0) {
+                    logger.info("Backfilled {} missing user game stats rows from game_scores", rows);
+                }
+                return;
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("User game stats backfill raced a game save (attempt {} of {})", attempt, BACKFILL_ATTEMPTS);
+            }
+        }
+    }
+
+    /**
+     * Adds saved scores to the user's totals. The scores must already be
+     * saved in the current transaction: a game type with no stats row yet is
+     * rebuilt from game_scores, which then includes them.
+     */
+    public void recordSaved(User user, List<GameScore> savedScores) {
+        Map<String, Optional<UserGameStats>> touched = new LinkedHashMap<>();
+        for (GameScore gameScore : savedScores) {
+            touched.computeIfAbsent(gameScore.getGameType(), gameType -> find(user, gameType))
+                    .ifPresent(stats -> stats.record(gameScore));
+        }
+        List<String> missing = new ArrayList<>();
+        touched.forEach((gameType, stats) -> {
+            if (stats.isPresent()) {
+                userGameStatsRepository.save(stats.get());
+            } else {
+                missing.add(gameType);
+            }
+        });
+        recompute(user, missing);
+    }
+
+    /**
+     * Recomputes the given game types from game_scores after some of the
+     * user's scores were deleted; a minimum or best score can't be taken back
+     * incrementally.
+     */
+    public void recordDeleted(User user, Collection<String> gameTypes) {
+        recompute(user, gameTypes);
+    }
+
+    // Replaces the user's rows for gameTypes with totals from game_scores, deleting rows left with no games
+    private void recompute(User user, Collection<String> gameTypes) {
+        if (gameTypes.isEmpty()) {
+            return;
+        }
+        Map<String, Object[]> totals = new LinkedHashMap<>();
+        for (Object[] row : gameScoreRepository.getGameTotalsByUser(user, gameTypes)) {
+            totals.put((String) row[0], row);
+        }
+        for (String gameType : gameTypes) {
+            Object[] row = totals.get(gameType);
+            if (row == null) {
+                userGameStatsRepository.deleteById(new UserGameStatsId(user.getId(), gameType));
+                continue;
+            }
+            UserGameStats stats = find(user, gameType).orElseGet(() -> new UserGameStats(user, gameType));
+            stats.setGamesPlayed(((Number) row[1]).longValue());
+            stats.setScoreSum(((Number) row[2]).longValue());
+            stats.setMinScore(((Number) row[3]).intValue());
+            stats.setBestScore(((Number) row[4]).intValue());
+            stats.setPointsEarned(((Number) row[5]).longValue());
+            stats.setPerfectCount(((Number) row[6]).longValue());
+            stats.setLastPlayedAt((LocalDateTime) row[7]);
+            userGameStatsRepository.save(stats);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserGameStats> getStats(User user) {
+        return userGameStatsRepository.findByUserOrderByIdGameType(user);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UserGameStats> find(User user, String gameType) {
+        return userGameStatsRepository.findById(new UserGameStatsId(user.getId(), gameType));
+    }
+}
@@ -0,0 +1,90 @@
+package com.tariff.app.service;
+
+import com.tariff.app.dto.HtsSuggestion;
+import com.tariff.app.schedule.HtsSuggestionIndex;
+import com.tariff.app.schedule.TariffScheduleReloadedEvent;
+import com.tariff.app.schedule.TariffTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Suggests HTS8 codes for a free-text product description, using a BM25
+ * index over the brief descriptions of every loaded tariff schedule.
+ *
+ * Runs entirely in process. The index covers all countries at once, so a
+ * schedule reload only marks it stale, and it is rebuilt on the next
+ * suggestion rather than once per country while schedules load.
+ */
+@Service
+public class HtsSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HtsSuggestionService.class);
+
+    @Autowired
+    private CountryTariffRegistry countryTariffRegistry;
+    @Autowired
+    private TariffScheduleEngine tariffScheduleEngine;
+
+    // Null when a schedule has reloaded since the index was built
+    private volatile HtsSuggestionIndex index;
+    private final AtomicLong reloads = new AtomicLong();
+    // A lock rather than synchronized, so requests waiting on a rebuild don't pin virtual threads
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @EventListener
+    public void onScheduleReloaded(TariffScheduleReloadedEvent event) {
+        reloads.incrementAndGet();
+        index = null;
+    }
+
+    /**
+     * The best matching HTS8 codes for the query, best first.
+     */
+    public List<HtsSuggestion> suggest(String query, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        List<HtsSuggestion> suggestions = new ArrayList<>();
+        for (HtsSuggestionIndex.Suggestion suggestion : currentIndex().suggest(query, limit)) {
+            suggestions.add(new HtsSuggestion(suggestion.hts8(), suggestion.briefDescription(), suggestion.score()));
+        }
+        return suggestions;
+    }
+
+    private HtsSuggestionIndex currentIndex() {
+        HtsSuggestionIndex current = index;
+        if (current != null) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            current = index;
+            if (current == null) {
+                long start = System.currentTimeMillis();
+                long reloadsBefore = reloads.get();
+                List<TariffTable> tables = new ArrayList<>();
+                for (String countryCode : countryTariffRegistry.getCodes()) {
+                    tariffScheduleEngine.getTable(countryCode).ifPresent(tables::add);
+                }
+                current = HtsSuggestionIndex.of(tables);
+                // Don't cache an index that a reload during the build has already made stale
+                if (reloads.get() == reloadsBefore) {
+                    index = current;
+                }
+                logger.info("Built HTS suggestion index over {} codes from {} schedules in {} ms",
+                        current.size(), tables.size(), System.currentTimeMillis() - start);
+            }
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.tariff.app.service;
+
+import com.tariff.app.leaderboard.GameScoresChangedEvent;
+import com.tariff.app.leaderboard.LeaderboardEntry;
+import com.tariff.app.leaderboard.TopScores;
+import com.tariff.app.repository.GameScoreRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory global and per game type leaderboards.
+ *
+ * Each board keeps only the best games.leaderboard.capacity scores, loaded
+ * from the database once the application is ready and then updated from
+ * {@link GameScoresChangedEvent}s after their transaction commits. Reads are
+ * O(limit) with no database access; until the boards are loaded, or for a
+ * limit beyond the capacity, callers get an empty result and should query
+ * the database instead.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    @Autowired
+    private GameScoreRepository gameScoreRepository;
+
+    @Value("${games.leaderboard.capacity:100}")
+    private int capacity;
+
+    private TopScores global;
+    private final Map<String, TopScores> byGameType = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @PostConstruct
+    void createGlobalBoard() {
+        global = new TopScores(capacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        long start = System.currentTimeMillis();
+        refill(null);
+        List<String> gameTypes = gameScoreRepository.findGameTypes();
+        for (String gameType : gameTypes) {
+            refill(gameType);
+        }
+        loaded = true;
+        logger.info("Loaded global and {} game type leaderboards in {} ms",
+                gameTypes.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoresChanged(GameScoresChangedEvent event) {
+        if (!event.saved().isEmpty()) {
+            board(null).offer(event.saved());
+            event.saved().stream()
+                    .collect(Collectors.groupingBy(LeaderboardEntry::gameType))
+                    .forEach((gameType, entries) -> board(gameType).offer(entries));
+        }
+        if (!event.deleted().isEmpty()) {
+            // A board that lost entries may now be missing scores just below its cut-off
+            if (board(null).remove(event.deleted())) {
+                refill(null);
+            }
+            event.deleted().stream()
+                    .collect(Collectors.groupingBy(LeaderboardEntry::gameType))
+                    .forEach((gameType, entries) -> {
+                        if (board(gameType).remove(entries)) {
+                            refill(gameType);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * The best scores for a game type, or overall when gameType is null;
+     * empty if the request can't be answered from memory.
+     */
+    public Optional<List<LeaderboardEntry>> getTop(String gameType, int limit) {
+        if (!loaded || limit > capacity) {
+            return Optional.empty();
+        }
+        TopScores board = gameType == null ? global : byGameType.get(gameType);
+        return Optional.of(board == null ? List.of() : board.top(limit));
+    }
+
+    private void refill(String gameType) {
+        board(gameType).refill(() -> (gameType == null
+                ? gameScoreRepository.findTopScores(Limit.of(capacity))
+                : gameScoreRepository.findTopScoresByGameType(gameType, Limit.of(capacity)))
+                .stream()
+                .map(LeaderboardEntry::of)
+                .collect(Collectors.toList()));
+    }
+
+    private TopScores board(String gameType) {
+        return gameType == null ? global : byGameType.computeIfAbsent(gameType, type -> new TopScores(capacity));
+    }
+}
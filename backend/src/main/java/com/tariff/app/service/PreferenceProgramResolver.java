@@ -0,0 +1,81 @@
+package com.tariff.app.service;
+
+import com.tariff.app.schedule.PreferenceProgram;
+import com.tariff.app.schedule.RateColumn;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps an origin country to the preferential program its goods enter under.
+ *
+ * Programs are data, read from tariff.preference-programs (a CSV of origin,
+ * program and rate columns), so a new agreement over existing columns is a
+ * line in that file rather than a code change. Lookups are a single hash
+ * probe; origins without a program get {@link PreferenceProgram#GENERAL}.
+ */
+@Component
+public class PreferenceProgramResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(PreferenceProgramResolver.class);
+
+    @Value("${tariff.preference-programs:classpath:tariff/preference-programs.csv}")
+    private Resource programsFile;
+
+    // Upper-case origin ISO code -> program
+    private Map<String, PreferenceProgram> programsByOrigin = Collections.emptyMap();
+
+    @PostConstruct
+    void loadPrograms() {
+        Map<String, PreferenceProgram> programs = new HashMap<>();
+        Map<String, PreferenceProgram> byName = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(programsFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s*,\\s*");
+                if (fields.length != 5) {
+                    throw new IllegalStateException("Expected 5 fields at " + programsFile.getDescription()
+                            + " line " + lineNumber + ": " + line);
+                }
+                // Origins sharing a program share one instance
+                PreferenceProgram program = byName.computeIfAbsent(fields[1], name -> new PreferenceProgram(
+                        name, RateColumn.valueOf(fields[2]), RateColumn.valueOf(fields[3]), RateColumn.valueOf(fields[4])));
+                programs.put(fields[0].toUpperCase(), program);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + programsFile.getDescription(), e);
+        }
+        programsByOrigin = Collections.unmodifiableMap(programs);
+        logger.info("Loaded {} preference programs for {} origins", byName.size(), programs.size());
+    }
+
+    /**
+     * The program for goods from an origin ISO code; GENERAL when there is
+     * none or the origin is missing.
+     */
+    public PreferenceProgram resolve(String originCountry) {
+        if (originCountry == null) {
+            return PreferenceProgram.GENERAL;
+        }
+        return programsByOrigin.getOrDefault(originCountry.toUpperCase(), PreferenceProgram.GENERAL);
+    }
+}
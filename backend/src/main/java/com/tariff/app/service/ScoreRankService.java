@@ -0,0 +1,144 @@
+package com.tariff.app.service;
+
+import com.tariff.app.leaderboard.GameScoresChangedEvent;
+import com.tariff.app.leaderboard.LeaderboardEntry;
+import com.tariff.app.leaderboard.ScoreDistribution;
+import com.tariff.app.repository.GameScoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per game type score distributions for rank lookups.
+ *
+ * The distributions are built from one grouped count query once the
+ * application is ready and then follow {@link GameScoresChangedEvent}s after
+ * their transaction commits. Until then lookups come back empty and callers
+ * count in the database instead. Events that arrive while a build runs are
+ * kept and replayed onto the new distributions before they replace the old
+ * ones, so no write is lost. A write whose listener runs just after the
+ * count query started can still be counted twice; the hourly rebuild
+ * (games.rank.rebuild-cron) bounds that drift.
+ */
+@Service
+public class ScoreRankService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoreRankService.class);
+
+    @Autowired
+    private GameScoreRepository gameScoreRepository;
+
+    private final AtomicReference<Map<String, ScoreDistribution>> distributions = new AtomicReference<>();
+
+    // Guards pending and the swap of distributions; builds don't hold it while querying
+    private final ReentrantLock lock = new ReentrantLock();
+    // Keeps the startup and scheduled builds from overlapping
+    private final ReentrantLock buildLock = new ReentrantLock();
+    // Events seen while a build runs, replayed onto its result; null when no build is running
+    private List<GameScoresChangedEvent> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        rebuild();
+    }
+
+    // Hourly by default; "-" disables it
+    @Scheduled(cron = "${games.rank.rebuild-cron:0 0 * * * *}")
+    public void rebuild() {
+        buildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            lock.lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+
+            Map<String, ScoreDistribution> rebuilt = new ConcurrentHashMap<>();
+            try {
+                for (Object[] row : gameScoreRepository.countScoresByGameTypeAndScore()) {
+                    rebuilt.computeIfAbsent((String) row[0], gameType -> new ScoreDistribution())
+                            .add(((Number) row[1]).intValue(), ((Number) row[2]).longValue());
+                }
+            } catch (RuntimeException e) {
+                // Keep the current distributions, which saw every event meanwhile
+                lock.lock();
+                try {
+                    pending = null;
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+
+            lock.lock();
+            try {
+                for (GameScoresChangedEvent event : pending) {
+                    apply(rebuilt, event);
+                }
+                pending = null;
+                distributions.set(rebuilt);
+            } finally {
+                lock.unlock();
+            }
+            logger.info("Built score distributions for {} game types in {} ms",
+                    rebuilt.size(), System.currentTimeMillis() - start);
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoresChanged(GameScoresChangedEvent event) {
+        lock.lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            Map<String, ScoreDistribution> current = distributions.get();
+            if (current != null) {
+                apply(current, event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * How many scores of a game type are above and below the given one, or
+     * empty if the distributions haven't been built yet.
+     */
+    public Optional<ScoreDistribution.Counts> countsAround(String gameType, int score) {
+        Map<String, ScoreDistribution> current = distributions.get();
+        if (current == null) {
+            return Optional.empty();
+        }
+        ScoreDistribution distribution = current.get(gameType);
+        return Optional.of(distribution == null
+                ? new ScoreDistribution.Counts(0, 0, 0)
+                : distribution.countsAround(score));
+    }
+
+    private static void apply(Map<String, ScoreDistribution> target, GameScoresChangedEvent event) {
+        for (LeaderboardEntry entry : event.saved()) {
+            target.computeIfAbsent(entry.gameType(), gameType -> new ScoreDistribution()).add(entry.score(), 1);
+        }
+        for (LeaderboardEntry entry : event.deleted()) {
+            target.computeIfAbsent(entry.gameType(), gameType -> new ScoreDistribution()).remove(entry.score());
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package com.tariff.app.service;
+
+import com.tariff.app.entity.User;
+import com.tariff.app.schedule.HtsCategories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Bulk-loads synthetic, schema-valid rows for load and scale testing: tariff
+ * lines into every tariffrates_* table, and users with game scores and their
+ * user_game_stats, daily tasks and task progress.
+ *
+ * Tariff lines follow the shape of the real schedule: codes are spread over
+ * HTS chapters in proportion to how many lines each chapter has in the US
+ * schedule, and rates follow the chapter's section (food and textiles carry
+ * higher, often specific or compound duties; machinery is mostly free). All
+ * countries share one set of codes and descriptions, each with its own rates.
+ * Output is a pure function of the seed. Rows go in through JDBC batch
+ * inserts, so the same code loads H2 and PostgreSQL; on PostgreSQL add
+ * reWriteBatchedInserts=true to the JDBC URL for multi-row inserts.
+ */
+@Service
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    public static final String USERNAME_PREFIX = "synthetic_";
+    private static final String TASK_ID_PREFIX = "synthetic_";
+    // "_" is a LIKE wildcard, so the prefixes are matched with it escaped
+    private static final String SYNTHETIC_USERS = "SELECT id FROM users WHERE username LIKE '"
+            + likePrefix(USERNAME_PREFIX) + "' ESCAPE '\\'";
+    private static final String SYNTHETIC_TASKS = "task_id LIKE '" + likePrefix(TASK_ID_PREFIX) + "' ESCAPE '\\'";
+
+    // Approximate count of 8-digit lines per chapter in the US schedule, chapters 1-97
+    private static final int[] CHAPTER_LINES = {
+        0,
+        30, 110, 270, 180, 25, 40, 130, 120, 60, 40,
+        45, 70, 20, 10, 110, 110, 60, 40, 60, 220,
+        90, 60, 30, 55, 70, 40, 60, 260, 650, 60,
+        25, 90, 40, 35, 25, 10, 40, 120, 190, 110,
+        50, 110, 20, 170, 10, 20, 20, 170, 30, 25,
+        85, 380, 40, 170, 310, 60, 45, 70, 40, 70,
+        420, 520, 120, 120, 20, 10, 10, 60, 65, 120,
+        70, 330, 260, 80, 25, 60, 0, 10, 15, 10,
+        60, 170, 50, 820, 560, 40, 150, 30, 25, 310,
+        110, 50, 45, 110, 90, 120, 15
+    };
+
+    /**
+     * How the lines of one HTS section read and are rated. Ad valorem rates
+     * are drawn from an exponential distribution around meanAdValorem.
+     */
+    private record Section(double freeShare, double meanAdValorem, double specificShare, double compoundShare,
+                           String[] products, String[] qualifiers) {
+    }
+
+    private static final Section DEFAULT_SECTION = new Section(0.35, 0.04, 0.03, 0.01,
+            new String[] {"articles", "parts", "accessories"}, new String[] {"other"});
+
+    private static final Map<String, Section> SECTIONS = new HashMap<>();
+
+    static {
+        SECTIONS.put("Animal & Animal Products", new Section(0.25, 0.06, 0.25, 0.10,
+                new String[] {"horses", "cattle", "swine", "beef cuts", "poultry", "fish fillets", "shrimps", "milk", "cheese", "eggs", "honey"},
+                new String[] {"live", "fresh", "chilled", "frozen", "dried", "smoked"}));
+        SECTIONS.put("Vegetable Products", new Section(0.30, 0.05, 0.20, 0.08,
+                new String[] {"apples", "bananas", "oranges", "potatoes", "coffee", "tea", "rice", "wheat", "soybeans", "cut flowers", "olive oil"},
+                new String[] {"fresh", "frozen", "dried", "roasted", "not roasted", "organic"}));
+        SECTIONS.put("Foodstuffs", new Section(0.20, 0.08, 0.20, 0.12,
+                new String[] {"sugar", "cocoa", "chocolate", "pasta", "fruit juice", "wine", "beer", "cigars", "sauces", "animal feed"},
+                new String[] {"prepared", "preserved", "sweetened", "in containers", "for retail sale", "other"}));
+        SECTIONS.put("Mineral Products", new Section(0.60, 0.02, 0.10, 0.02,
+                new String[] {"cement", "salt", "iron ore", "crude oil", "natural gas", "coal", "marble", "sulfur"},
+                new String[] {"crude", "refined", "in bulk", "other"}));
+        SECTIONS.put("Chemicals & Allied Industries", new Section(0.45, 0.04, 0.02, 0.01,
+                new String[] {"medicaments", "fertilizers", "paints", "soaps", "perfumes", "insecticides", "vitamins", "pigments", "adhesives"},
+                new String[] {"organic", "inorganic", "in measured doses", "for retail sale", "other"}));
+        SECTIONS.put("Plastics / Rubbers", new Section(0.25, 0.04, 0.01, 0.01,
+                new String[] {"plastic bottles", "polyethylene", "plastic film", "tyres", "rubber gloves", "conveyor belts"},
+                new String[] {"of plastics", "of rubber", "new", "retreaded", "other"}));
+        SECTIONS.put("Raw Hides, Skins, Leather, & Furs", new Section(0.25, 0.06, 0.01, 0.01,
+                new String[] {"raw hides", "fur skins", "handbags", "wallets", "gloves", "saddlery"},
+                new String[] {"of leather", "of composition leather", "tanned", "other"}));
+        SECTIONS.put("Wood & Wood Products", new Section(0.70, 0.03, 0.01, 0.01,
+                new String[] {"lumber", "plywood", "wood pulp", "paper", "cardboard boxes", "newsprint", "printed books"},
+                new String[] {"coniferous", "non-coniferous", "coated", "uncoated", "other"}));
+        SECTIONS.put("Textiles", new Section(0.05, 0.11, 0.04, 0.06,
+                new String[] {"cotton yarn", "t-shirts", "sweaters", "trousers", "silk fabric", "wool fabric", "bed linen", "carpets", "denim"},
+                new String[] {"knitted", "woven", "of cotton", "of wool", "of synthetic fibers", "men's", "women's"}));
+        SECTIONS.put("Footwear / Headgear", new Section(0.05, 0.12, 0.05, 0.08,
+                new String[] {"footwear", "sports shoes", "hats", "umbrellas", "artificial flowers"},
+                new String[] {"with rubber soles", "with leather uppers", "waterproof", "other"}));
+        SECTIONS.put("Stone / Glass", new Section(0.40, 0.05, 0.02, 0.02,
+                new String[] {"ceramic tiles", "porcelain", "glassware", "mirrors", "diamonds", "jewelry"},
+                new String[] {"glazed", "unglazed", "of gold", "of silver", "other"}));
+        SECTIONS.put("Metals", new Section(0.40, 0.03, 0.02, 0.02,
+                new String[] {"steel bars", "steel pipes", "aluminium sheets", "copper wire", "screws", "hand tools", "padlocks", "cutlery"},
+                new String[] {"of iron or steel", "of stainless steel", "of aluminium", "of copper", "alloyed", "other"}));
+        SECTIONS.put("Machinery / Electrical", new Section(0.55, 0.025, 0.005, 0.005,
+                new String[] {"pumps", "engines", "refrigerators", "laptop computers", "printers", "telephones", "transformers", "batteries", "semiconductors"},
+                new String[] {"portable", "industrial", "electric", "parts of", "other"}));
+        SECTIONS.put("Transportation", new Section(0.35, 0.03, 0.01, 0.01,
+                new String[] {"motor cars", "tractors", "motorcycles", "bicycles", "railway cars", "ships", "aircraft parts"},
+                new String[] {"new", "used", "electric", "parts of", "other"}));
+        SECTIONS.put("Miscellaneous", new Section(0.45, 0.04, 0.02, 0.02,
+                new String[] {"watches", "furniture", "lamps", "toys", "musical instruments", "medical instruments", "video game consoles", "paintings"},
+                new String[] {"of wood", "of metal", "of plastics", "electric", "other"}));
+    }
+
+    // Lets the driver pick the type, which H2 and PostgreSQL both do right for UUIDs
+    private static final int UUID_TYPE = SqlTypeValue.TYPE_UNKNOWN;
+
+    private static final String[] GAME_TYPES = {"quiz", "strategy", "puzzle", "daily"};
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+
+    private static final String TARIFF_COLUMNS = "hts8, brief_description, mfn_text_rate, "
+            + "mfn_ad_val_rate, mfn_specific_rate, mfn_other_rate, col2_ad_val_rate, col2_specific_rate, col2_other_rate, "
+            + "jordan_indicator, jordan_ad_val_rate, jordan_specific_rate, jordan_other_rate, "
+            + "singapore_indicator, singapore_ad_val_rate, singapore_specific_rate, singapore_other_rate, "
+            + "australia_indicator, australia_ad_val_rate, australia_specific_rate, australia_other_rate";
+    private static final int[] TARIFF_TYPES = {
+        Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE,
+        Types.DOUBLE, Types.DOUBLE, Types.DOUBLE,
+        Types.VARCHAR, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE,
+        Types.VARCHAR, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE,
+        Types.VARCHAR, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CountryTariffRegistry countryTariffRegistry;
+
+    @Value("${tariff.generate.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * What to generate. Generated tariff lines cannot be told apart from real
+     * ones, so they are only written into empty tables unless clearTariffs is
+     * set; synthetic users and tasks from an earlier run are always replaced.
+     */
+    public record Plan(int rowsPerCountry, boolean clearTariffs, int users, int scoresPerUser, int days,
+                       String userPassword, long seed) {
+    }
+
+    public void generate(Plan plan) {
+        if (plan.rowsPerCountry() > 0) {
+            generateTariffs(plan.rowsPerCountry(), plan.clearTariffs(), plan.seed());
+        }
+        if (plan.users() > 0) {
+            generateGames(plan.users(), plan.scoresPerUser(), plan.days(), plan.userPassword(), plan.seed());
+        }
+    }
+
+    /**
+     * Inserts rowsPerCountry tariff lines into each country's table and
+     * returns their HTS8 codes in ascending order.
+     *
+     * @throws IllegalStateException if clear is not set and any table already
+     *         has rows; nothing is written in that case
+     */
+    public List<String> generateTariffs(int rowsPerCountry, boolean clear, long seed) {
+        if (!clear) {
+            for (CountryTariffRegistry.CountryTariffs country : countryTariffRegistry.getCountries()) {
+                Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + country.tableName(), Long.class);
+                if (rows != null && rows > 0) {
+                    throw new IllegalStateException(country.tableName() + " already has " + rows
+                            + " rows; set tariff.generate.clear-tariffs=true to replace them");
+                }
+            }
+        }
+        List<String> codes = generateCodes(rowsPerCountry, new Random(seed));
+        for (CountryTariffRegistry.CountryTariffs country : countryTariffRegistry.getCountries()) {
+            long start = System.currentTimeMillis();
+            if (clear) {
+                jdbcTemplate.update("DELETE FROM " + country.tableName());
+            }
+            Random random = new Random(seed ^ country.code().hashCode());
+            // Some countries tax everything more heavily than others
+            double level = 0.6 + random.nextDouble() * 0.8;
+            Batch batch = new Batch("INSERT INTO " + country.tableName() + " (" + TARIFF_COLUMNS + ") "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", TARIFF_TYPES);
+            for (String hts8 : codes) {
+                batch.add(tariffRow(hts8, level, seed, random));
+            }
+            batch.flush();
+            logger.info("Generated {} rows in {} in {} ms", codes.size(), country.tableName(),
+                    System.currentTimeMillis() - start);
+        }
+        return codes;
+    }
+
+    /**
+     * Spreads count distinct codes over chapters by their share of lines,
+     * evenly through each chapter's code space.
+     */
+    private static List<String> generateCodes(int count, Random random) {
+        int totalLines = 0;
+        for (int lines : CHAPTER_LINES) {
+            totalLines += lines;
+        }
+        List<String> codes = new ArrayList<>(count);
+        int remaining = count;
+        int remainingLines = totalLines;
+        for (int chapter = 1; chapter < CHAPTER_LINES.length; chapter++) {
+            if (CHAPTER_LINES[chapter] == 0) {
+                continue;
+            }
+            int inChapter = (int) Math.round((double) remaining * CHAPTER_LINES[chapter] / remainingLines);
+            remaining -= inChapter;
+            remainingLines -= CHAPTER_LINES[chapter];
+            if (inChapter == 0) {
+                continue;
+            }
+            int stride = 1_000_000 / inChapter;
+            for (int i = 0; i < inChapter; i++) {
+                int suffix = i * stride + (stride > 1 ? random.nextInt(stride) : 0);
+                codes.add(String.format("%02d%06d", chapter, suffix));
+            }
+        }
+        return codes;
+    }
+
+    private static Object[] tariffRow(String hts8, double level, long seed, Random random) {
+        Section section = SECTIONS.getOrDefault(HtsCategories.ofChapter(HtsCategories.chapter(hts8)), DEFAULT_SECTION);
+
+        // Descriptions depend only on the code, so they match across countries
+        SplittableRandom words = new SplittableRandom(seed * 31 + hts8.hashCode());
+        String qualifier = section.qualifiers()[words.nextInt(section.qualifiers().length)];
+        String product = section.products()[words.nextInt(section.products().length)];
+        // "Frozen beef cuts", but "Sweaters, of wool"
+        String description = qualifier.matches("(of|with|in|for) .*")
+                ? product + ", " + qualifier
+                : qualifier + " " + product;
+        description = Character.toUpperCase(description.charAt(0)) + description.substring(1);
+
+        double adValorem = 0.0;
+        double specific = 0.0;
+        String textRate;
+        double draw = random.nextDouble();
+        if (draw < section.freeShare()) {
+            textRate = "rate Free";
+        } else if (draw < section.freeShare() + section.specificShare()) {
+            specific = cents(random);
+            textRate = "rate " + formatCents(specific) + "/kg";
+        } else if (draw < section.freeShare() + section.specificShare() + section.compoundShare()) {
+            specific = cents(random);
+            adValorem = adValorem(section, level, random);
+            textRate = "rate " + formatCents(specific) + "/kg + " + formatPercent(adValorem);
+        } else {
+            adValorem = adValorem(section, level, random);
+            textRate = "rate " + formatPercent(adValorem);
+        }
+        // Column 2 rates sit well above MFN, typically 20-50%
+        double col2 = Math.min(0.9, Math.max(Math.round(adValorem * 3000) / 1000.0, (4 + random.nextInt(7)) / 20.0));
+        Double col2Specific = specific > 0 ? Math.round(specific * 3000) / 1000.0 : null;
+
+        // Most dutiable lines enter duty-free under each agreement
+        boolean jordan = random.nextDouble() < 0.8;
+        boolean singapore = random.nextDouble() < 0.8;
+        boolean australia = random.nextDouble() < 0.75;
+        return new Object[] {
+            hts8, description, textRate,
+            adValorem, specific > 0 ? specific : null, null,
+            col2, col2Specific, null,
+            jordan ? "JO" : null, jordan ? 0.0 : null, jordan && specific > 0 ? 0.0 : null, null,
+            singapore ? "SG" : null, singapore ? 0.0 : null, singapore && specific > 0 ? 0.0 : null, null,
+            australia ? "AU" : null, australia ? preferential(adValorem, random) : null, australia && specific > 0 ? 0.0 : null, null
+        };
+    }
+
+    private static double adValorem(Section section, double level, Random random) {
+        double rate = -Math.log(1 - random.nextDouble()) * section.meanAdValorem() * level;
+        // Published rates have at most one decimal place in percent
+        return Math.max(0.001, Math.min(0.5, Math.round(rate * 1000) / 1000.0));
+    }
+
+    // Dollars per kg, from 0.1¢ to 50¢
+    private static double cents(Random random) {
+        return (1 + random.nextInt(500)) / 1000.0;
+    }
+
+    // Some lines are still being phased down under the agreement
+    private static double preferential(double adValorem, Random random) {
+        return random.nextDouble() < 0.1 ? Math.round(adValorem * 500) / 1000.0 : 0.0;
+    }
+
+    private static String formatPercent(double rate) {
+        double percent = Math.round(rate * 1000) / 10.0;
+        return (percent == Math.rint(percent) ? String.valueOf((long) percent) : String.valueOf(percent)) + "%";
+    }
+
+    private static String formatCents(double dollars) {
+        double cents = Math.round(dollars * 1000) / 10.0;
+        return (cents == Math.rint(cents) ? String.valueOf((long) cents) : String.valueOf(cents)) + "¢";
+    }
+
+    /**
+     * Replaces the synthetic users, their game scores and task progress, and
+     * the synthetic daily tasks. Every user shares one password so a load
+     * test can log in as any of them.
+     */
+    public void generateGames(int users, int scoresPerUser, int days, String userPassword, long seed) {
+        long start = System.currentTimeMillis();
+        deleteSyntheticGameData();
+
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+
+        // Hashing is deliberately slow, so hash once
+        User template = new User();
+        template.setHashPassword(userPassword);
+        String passwordHash = template.getPassword();
+
+        UUID[] userIds = new UUID[users];
+        double[] skills = new double[users];
+        // How much each user plays relative to the mean: a few heavy players, many casual ones
+        double[] activity = new double[users];
+        Batch userBatch = new Batch("INSERT INTO users (id, username, password_hash, created_at, updated_at, last_login) "
+                + "VALUES (?, ?, ?, ?, ?, ?)",
+                new int[] {UUID_TYPE, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP_WITH_TIMEZONE,
+                    Types.TIMESTAMP_WITH_TIMEZONE, Types.TIMESTAMP_WITH_TIMEZONE});
+        for (int i = 0; i < users; i++) {
+            userIds[i] = uuid(random);
+            skills[i] = random.nextGaussian();
+            activity[i] = -Math.log(1 - random.nextDouble());
+            OffsetDateTime createdAt = now.minusDays(days + random.nextInt(365)).atOffset(ZoneOffset.UTC);
+            OffsetDateTime lastLogin = now.minusMinutes(random.nextInt(Math.max(1, days) * 24 * 60)).atOffset(ZoneOffset.UTC);
+            userBatch.add(new Object[] {userIds[i], String.format("%s%06d", USERNAME_PREFIX, i + 1), passwordHash,
+                createdAt, lastLogin, lastLogin});
+        }
+        userBatch.flush();
+
+        Batch scoreBatch = new Batch("INSERT INTO game_scores (id, user_id, game_type, score, max_score, time_spent, "
+                + "moves_used, perfect_score, points_earned, game_data, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                new int[] {UUID_TYPE, UUID_TYPE, Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.INTEGER,
+                    Types.INTEGER, Types.BOOLEAN, Types.INTEGER, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP});
+        long scores = 0;
+        for (int i = 0; i < users; i++) {
+            int games = (int) Math.round(scoresPerUser * activity[i]);
+            for (int g = 0; g < games; g++) {
+                String gameType = GAME_TYPES[random.nextInt(GAME_TYPES.length)];
+                int score = (int) Math.max(0, Math.min(10_000,
+                        Math.round(6_000 + 1_200 * skills[i] + 1_000 * random.nextGaussian())));
+                Timestamp playedAt = Timestamp.valueOf(now.minusSeconds(random.nextInt(Math.max(1, days) * 86_400)));
+                scoreBatch.add(new Object[] {uuid(random), userIds[i], gameType, score, 10_000,
+                    30 + random.nextInt(900), 5 + random.nextInt(60), score == 10_000, score / 10, null,
+                    playedAt, playedAt});
+            }
+            scores += games;
+        }
+        scoreBatch.flush();
+        // The application keeps user_game_stats in step with each write; these rows bypass it
+        jdbcTemplate.update("INSERT INTO user_game_stats (user_id, game_type, games_played, score_sum, min_score, "
+                + "best_score, points_earned, perfect_count, last_played_at) "
+                + "SELECT user_id, game_type, COUNT(*), SUM(score), MIN(score), MAX(score), "
+                + "COALESCE(SUM(points_earned), 0), SUM(CASE WHEN perfect_score THEN 1 ELSE 0 END), MAX(created_at) "
+                + "FROM game_scores WHERE user_id IN (" + SYNTHETIC_USERS + ") GROUP BY user_id, game_type");
+
+        // A quiz and a challenge per day
+        List<UUID> taskIds = new ArrayList<>();
+        List<LocalDate> taskDates = new ArrayList<>();
+        List<Integer> taskPoints = new ArrayList<>();
+        List<Integer> taskMaxProgress = new ArrayList<>();
+        Batch taskBatch = new Batch("INSERT INTO daily_tasks (id, task_id, title, description, category, points, "
+                + "difficulty, max_progress, reward, active, task_type, task_date, expiry_date, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                new int[] {UUID_TYPE, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER,
+                    Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.BOOLEAN, Types.VARCHAR, Types.DATE, Types.DATE,
+                    Types.TIMESTAMP, Types.TIMESTAMP});
+        for (int day = 0; day < days; day++) {
+            LocalDate date = today.minusDays(day);
+            String dateKey = date.format(DateTimeFormatter.BASIC_ISO_DATE);
+            for (String kind : new String[] {"quiz", "challenge"}) {
+                boolean quiz = kind.equals("quiz");
+                UUID id = uuid(random);
+                int points = quiz ? 50 + 25 * random.nextInt(5) : 100 + 50 * random.nextInt(5);
+                int maxProgress = quiz ? 1 : 3 + random.nextInt(8);
+                Timestamp createdAt = Timestamp.valueOf(date.atStartOfDay());
+                taskBatch.add(new Object[] {id, TASK_ID_PREFIX + kind + "_" + dateKey,
+                    quiz ? "Daily tariff quiz" : "Classify " + maxProgress + " products",
+                    quiz ? "Answer today's tariff question" : "Find the HTS code for " + maxProgress + " products",
+                    quiz ? "Quiz" : "Challenge", points, DIFFICULTIES[random.nextInt(DIFFICULTIES.length)], maxProgress,
+                    random.nextDouble() < 0.3 ? "Badge" : null, day == 0, quiz ? "Daily Quiz" : "Daily Challenge",
+                    date, date.plusDays(1), createdAt, createdAt});
+                taskIds.add(id);
+                taskDates.add(date);
+                taskPoints.add(points);
+                taskMaxProgress.add(maxProgress);
+            }
+        }
+        taskBatch.flush();
+
+        Batch progressBatch = new Batch("INSERT INTO user_task_progress (id, user_id, task_id, progress, completed, "
+                + "completed_at, points_earned, task_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                new int[] {UUID_TYPE, UUID_TYPE, UUID_TYPE, Types.INTEGER, Types.BOOLEAN, Types.TIMESTAMP,
+                    Types.INTEGER, Types.DATE, Types.TIMESTAMP, Types.TIMESTAMP});
+        long progressRows = 0;
+        for (int i = 0; i < users; i++) {
+            double engagement = Math.min(0.95, 0.3 * activity[i]);
+            for (int t = 0; t < taskIds.size(); t++) {
+                if (random.nextDouble() >= engagement) {
+                    continue;
+                }
+                int maxProgress = taskMaxProgress.get(t);
+                int progress = random.nextDouble() < 0.7 ? maxProgress : random.nextInt(maxProgress);
+                boolean completed = progress == maxProgress;
+                Timestamp startedAt = Timestamp.valueOf(taskDates.get(t).atTime(8 + random.nextInt(12), random.nextInt(60)));
+                progressBatch.add(new Object[] {uuid(random), userIds[i], taskIds.get(t), progress, completed,
+                    completed ? startedAt : null, completed ? taskPoints.get(t) : 0, taskDates.get(t),
+                    startedAt, startedAt});
+                progressRows++;
+            }
+        }
+        progressBatch.flush();
+
+        logger.info("Generated {} users, {} game scores, {} daily tasks and {} task progress rows in {} ms",
+                users, scores, taskIds.size(), progressRows, System.currentTimeMillis() - start);
+    }
+
+    private void deleteSyntheticGameData() {
+        String syntheticTasks = "SELECT id FROM daily_tasks WHERE " + SYNTHETIC_TASKS;
+        jdbcTemplate.update("DELETE FROM user_task_progress WHERE user_id IN (" + SYNTHETIC_USERS + ") "
+                + "OR task_id IN (" + syntheticTasks + ")");
+        jdbcTemplate.update("DELETE FROM user_game_stats WHERE user_id IN (" + SYNTHETIC_USERS + ")");
+        jdbcTemplate.update("DELETE FROM game_scores WHERE user_id IN (" + SYNTHETIC_USERS + ")");
+        jdbcTemplate.update("DELETE FROM daily_tasks WHERE " + SYNTHETIC_TASKS);
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (" + SYNTHETIC_USERS + ")");
+    }
+
+    // A LIKE pattern for strings starting with prefix, with \ as the escape character
+    private static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    // A version 4 UUID drawn from the seeded generator, so reruns are repeatable
+    private static UUID uuid(Random random) {
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+
+    /**
+     * Collects rows and sends them as one JDBC batch every batchSize rows.
+     */
+    private class Batch {
+        private final String sql;
+        private final int[] types;
+        private final List<Object[]> rows = new ArrayList<>(batchSize);
+
+        Batch(String sql, int[] types) {
+            this.sql = sql;
+            this.types = types;
+        }
+
+        void add(Object[] row) {
+            rows.add(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows, types);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.tariff.app.service;
+
+import com.tariff.app.dto.DashboardDataResponse;
+import com.tariff.app.schedule.HtsCategories;
+import com.tariff.app.schedule.RateColumn;
+import com.tariff.app.schedule.TariffScheduleReloadedEvent;
+import com.tariff.app.schedule.TariffTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Builds origin/destination tariff heatmaps.
+ *
+ * Each destination schedule is reduced once, when it is loaded, to per-chapter
+ * rate sums and row counts. A heatmap for any product category is then a
+ * matter of adding up the matching chapters, so building the full matrix never
+ * touches individual tariff rows. Matrices are cached per category until the
+ * next schedule reload.
+ */
+@Service
+public class TariffHeatmapService {
+
+    private static final String ALL_CATEGORIES = "all";
+
+    // Index used for rows whose HTS code has no chapter
+    private static final int NO_CHAPTER = 100;
+
+    private static final Map<String, Double> COUNTRY_VARIATIONS = new HashMap<String, Double>() {{
+        // Add realistic variation based on trade relationships
+        put("US-CA", -2.0);  // NAFTA/USMCA - lower rates
+        put("US-MX", -1.5);  // NAFTA/USMCA - lower rates
+        put("CN-SG", -1.0);  // China-Singapore FTA
+        put("JP-KR", -0.8);  // Japan-Korea partnership
+        put("GB-FR", -3.0);  // EU internal market
+        put("FR-IT", -2.5);  // EU internal market
+        put("US-CN", 3.0);   // Trade tensions - higher rates
+        put("CN-US", 2.5);   // Trade tensions - higher rates
+    }};
+
+    private static final Map<String, Double> CATEGORY_VARIATIONS = new HashMap<String, Double>() {{
+        // Add variation based on typical trade patterns between countries
+        // Electronics and technology
+        put("CN-US", -1.5);  // China exports electronics to US
+        put("SG-US", -1.2);  // Singapore exports technology
+        put("JP-US", -0.8);  // Japan exports electronics
+        put("KR-US", -0.6);  // South Korea exports electronics
+
+        // Automotive
+        put("JP-US", 2.0);   // Japan exports cars to US
+        put("DE-US", 1.8);   // Germany exports cars
+        put("KR-US", 1.5);   // South Korea exports cars
+
+        // Textiles
+        put("IN-US", 3.0);   // India exports textiles
+        put("BD-US", 3.5);   // Bangladesh exports textiles
+        put("CN-US", 2.0);   // China exports textiles
+
+        // Agriculture
+        put("BR-US", 4.0);   // Brazil exports agricultural products
+        put("AU-US", 3.5);   // Australia exports agricultural products
+        put("CA-US", 2.5);   // Canada exports agricultural products
+    }};
+
+    private static final Map<String, Double> COUNT_VARIATIONS = new HashMap<String, Double>() {{
+        // Major trading partners have more products
+        put("US-CN", 1.2);   // US-China trade
+        put("CN-US", 1.2);   // China-US trade
+        put("US-MX", 1.1);   // US-Mexico trade
+        put("US-CA", 1.1);   // US-Canada trade
+        put("GB-FR", 1.15);  // UK-France trade
+        put("FR-GB", 1.15);  // France-UK trade
+        put("JP-KR", 1.05);  // Japan-Korea trade
+        put("KR-JP", 1.05);  // Korea-Japan trade
+
+        // Smaller trading relationships
+        put("SG-US", 0.8);   // Singapore-US trade
+        put("AU-US", 0.9);   // Australia-US trade
+        put("ZA-US", 0.7);   // South Africa-US trade
+    }};
+
+    @Autowired
+    private TariffScheduleEngine tariffScheduleEngine;
+
+    // Replaced as a whole on reload, so a matrix built from old profiles can
+    // never end up in the cache that belongs to new ones
+    private final AtomicReference<HeatmapCache> cache = new AtomicReference<>(new HeatmapCache(Collections.emptyMap()));
+
+    @EventListener
+    public void onScheduleReloaded(TariffScheduleReloadedEvent event) {
+        ChapterProfile profile = ChapterProfile.of(event.table());
+        cache.updateAndGet(current -> {
+            Map<String, ChapterProfile> profiles = new HashMap<>(current.profiles);
+            profiles.put(event.countryCode(), profile);
+            return new HeatmapCache(Collections.unmodifiableMap(profiles));
+        });
+    }
+
+    /**
+     * Returns the full origin/destination matrix for a product category
+     * (null or "all" for every product).
+     */
+    public List<DashboardDataResponse.TariffHeatmapData> getHeatmap(String category) {
+        return getMatrix(category).values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns what every other country pays to import into one destination.
+     */
+    public List<DashboardDataResponse.TariffHeatmapData> getHeatmapForDestination(String destinationCountry, String category) {
+        return getMatrix(category).getOrDefault(destinationCountry.toUpperCase(), Collections.emptyList());
+    }
+
+    public double getAverageRate(String originCountry, String destinationCountry) {
+        for (DashboardDataResponse.TariffHeatmapData entry : getHeatmapForDestination(destinationCountry, null)) {
+            if (entry.getOriginCountry().equals(originCountry)) {
+                return entry.getAverageRate();
+            }
+        }
+        return 0.0;
+    }
+
+    private Map<String, List<DashboardDataResponse.TariffHeatmapData>> getMatrix(String category) {
+        String key = category == null || ALL_CATEGORIES.equalsIgnoreCase(category) ? ALL_CATEGORIES : category;
+        HeatmapCache current = cache.get();
+        // Only known categories are cached, so arbitrary strings can't grow the cache
+        if (!ALL_CATEGORIES.equals(key) && HtsCategories.codeRange(key).isEmpty()) {
+            return buildMatrix(current.profiles, key);
+        }
+        return current.matrices.computeIfAbsent(key, k -> buildMatrix(current.profiles, k));
+    }
+
+    // One column per destination, built in parallel; no rows are scanned here
+    private Map<String, List<DashboardDataResponse.TariffHeatmapData>> buildMatrix(Map<String, ChapterProfile> profiles,
+                                                                                 String category) {
+        List<String> countries = new ArrayList<>(tariffScheduleEngine.getCountryCodes());
+        boolean[] chapters = chaptersIn(category);
+
+        Map<String, List<DashboardDataResponse.TariffHeatmapData>> matrix = countries.parallelStream()
+                .collect(Collectors.toMap(
+                    destination -> destination,
+                    destination -> buildColumn(destination, countries, profiles.get(destination), chapters),
+                    (a, b) -> a,
+                    LinkedHashMap::new));
+        return Collections.unmodifiableMap(matrix);
+    }
+
+    private List<DashboardDataResponse.TariffHeatmapData> buildColumn(String destination, List<String> countries,
+                                                                     ChapterProfile profile, boolean[] chapters) {
+        int rows = 0;
+        int rateCount = 0;
+        double rateSum = 0.0;
+        if (profile != null) {
+            for (int chapter = 0; chapter < chapters.length; chapter++) {
+                if (chapters[chapter]) {
+                    rows += profile.rows[chapter];
+                    rateCount += profile.rateCounts[chapter];
+                    rateSum += profile.rateSums[chapter];
+                }
+            }
+        }
+
+        List<DashboardDataResponse.TariffHeatmapData> column = new ArrayList<>(countries.size() - 1);
+        for (String origin : countries) {
+            if (origin.equals(destination)) {
+                continue;
+            }
+            double averageRate = 0.0;
+            if (rateCount > 0) {
+                double baseRate = rateSum / rateCount;
+                double variation = getCountryVariation(origin, destination);
+                double categoryVariation = CATEGORY_VARIATIONS.getOrDefault(origin + "-" + destination, 0.0);
+                double randomVariation = (Math.random() - 0.5) * 4.0; // -2 to +2
+                averageRate = Math.max(0.1, baseRate + variation + categoryVariation + randomVariation);
+            }
+
+            double countVariation = COUNT_VARIATIONS.getOrDefault(origin + "-" + destination, 1.0);
+            double randomFactor = 0.8 + (Math.random() * 0.4); // 0.8 to 1.2
+            int productCount = (int) Math.max(100, rows * countVariation * randomFactor);
+
+            column.add(new DashboardDataResponse.TariffHeatmapData(
+                origin, destination, averageRate, productCount, categorizeRate(averageRate)
+            ));
+        }
+        return column;
+    }
+
+    private static double getCountryVariation(String origin, String destination) {
+        String key = origin + "-" + destination;
+        String reverseKey = destination + "-" + origin;
+        return COUNTRY_VARIATIONS.getOrDefault(key, COUNTRY_VARIATIONS.getOrDefault(reverseKey, 0.0));
+    }
+
+    private static String categorizeRate(double rate) {
+        if (rate <= 2.0) return "Very Low";
+        if (rate <= 5.0) return "Low";
+        if (rate <= 10.0) return "Medium";
+        if (rate <= 20.0) return "High";
+        return "Very High";
+    }
+
+    private static boolean[] chaptersIn(String category) {
+        boolean[] chapters = new boolean[NO_CHAPTER + 1];
+        boolean all = ALL_CATEGORIES.equals(category);
+        for (int chapter = 0; chapter < NO_CHAPTER; chapter++) {
+            chapters[chapter] = all || HtsCategories.ofChapter(chapter).equals(category);
+        }
+        chapters[NO_CHAPTER] = all || HtsCategories.OTHER.equals(category);
+        return chapters;
+    }
+
+    private static final class HeatmapCache {
+        private final Map<String, ChapterProfile> profiles;
+        private final Map<String, Map<String, List<DashboardDataResponse.TariffHeatmapData>>> matrices =
+                new ConcurrentHashMap<>();
+
+        private HeatmapCache(Map<String, ChapterProfile> profiles) {
+            this.profiles = profiles;
+        }
+    }
+
+    /**
+     * Row counts and positive ad valorem rate totals (as percentages, ignoring
+     * values above 100%) for each HTS chapter of one schedule.
+     */
+    private static final class ChapterProfile {
+        private final int[] rows = new int[NO_CHAPTER + 1];
+        private final int[] rateCounts = new int[NO_CHAPTER + 1];
+        private final double[] rateSums = new double[NO_CHAPTER + 1];
+
+        static ChapterProfile of(TariffTable table) {
+            ChapterProfile profile = new ChapterProfile();
+            double[] adVal = table.column(RateColumn.MFN_AD_VAL);
+            for (int row = 0; row < table.size(); row++) {
+                int chapter = table.chapter(row);
+                if (chapter < 0) {
+                    chapter = NO_CHAPTER;
+                }
+                profile.rows[chapter]++;
+
+                double rate = adVal[row];
+                if (rate > 0) {
+                    if (rate < 1.0) rate = rate * 100.0; // Convert decimal to percentage
+                    if (rate <= 100.0) {
+                        profile.rateCounts[chapter]++;
+                        profile.rateSums[chapter] += rate;
+                    }
+                }
+            }
+            return profile;
+        }
+    }
+}
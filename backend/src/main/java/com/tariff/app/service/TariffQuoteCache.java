@@ -0,0 +1,175 @@
+package com.tariff.app.service;
+
+import com.tariff.app.schedule.EffectiveRates;
+import com.tariff.app.schedule.TariffScheduleReloadedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of the effective rates for an (HTS8, origin, destination)
+ * triple, so repeated quotes only multiply by the item value.
+ *
+ * Split into independently locked segments so concurrent quotes rarely
+ * contend. Each segment evicts its least recently used entry once it holds
+ * its share of tariff.quote-cache.max-entries. A destination's entries are
+ * dropped when its schedule reloads. Codes with no tariff line are cached too.
+ */
+@Component
+public class TariffQuoteCache {
+
+    @Value("${tariff.quote-cache.max-entries:100000}")
+    private int maxEntries;
+    @Value("${tariff.quote-cache.segments:16}")
+    private int segmentCount;
+
+    private Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // Bumped on every reload of a destination, so a load that raced with one isn't cached
+    private final ConcurrentMap<String, AtomicLong> reloadsByDestination = new ConcurrentHashMap<>();
+
+    /**
+     * The cache key. countryOfArrival is the resolved ISO code and
+     * originCountry an upper-case code, see {@link #normalizeOrigin}.
+     */
+    public record QuoteKey(String hts8, String originCountry, String countryOfArrival) {
+    }
+
+    /**
+     * Trims and upper-cases an origin code so spellings of the same origin
+     * share one entry; null stays null.
+     */
+    public static String normalizeOrigin(String originCountry) {
+        return originCountry == null ? null : originCountry.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Point-in-time counters, cumulative since startup. segmentSizes holds
+     * each segment's entry count and size is their total, so an uneven spread
+     * of keys across segments shows up.
+     */
+    public record Stats(int size, List<Integer> segmentSizes, int maxEntries,
+                        long hits, long misses, long evictions, double hitRate) {
+    }
+
+    private final class Segment extends LinkedHashMap<QuoteKey, Optional<EffectiveRates>> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<QuoteKey, Optional<EffectiveRates>> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @PostConstruct
+    void createSegments() {
+        int count = Math.max(1, Math.min(segmentCount, maxEntries));
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(Math.max(1, maxEntries / count));
+        }
+    }
+
+    /**
+     * Returns the cached rates for the key, computing and caching them on a
+     * miss. The computation runs outside the lock, so two concurrent misses
+     * for the same key may both compute it.
+     */
+    public Optional<EffectiveRates> get(QuoteKey key, Supplier<Optional<EffectiveRates>> loader) {
+        Segment segment = segmentFor(key);
+        Optional<EffectiveRates> rates;
+        segment.lock.lock();
+        try {
+            rates = segment.get(key);
+        } finally {
+            segment.lock.unlock();
+        }
+        if (rates != null) {
+            hits.increment();
+            return rates;
+        }
+
+        misses.increment();
+        AtomicLong reloads = reloadsOf(key.countryOfArrival());
+        long reloadsBefore = reloads.get();
+        rates = loader.get();
+        segment.lock.lock();
+        try {
+            if (reloads.get() == reloadsBefore) {
+                segment.put(key, rates);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        return rates;
+    }
+
+    @EventListener
+    public void onScheduleReloaded(TariffScheduleReloadedEvent event) {
+        reloadsOf(event.countryCode()).incrementAndGet();
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.keySet().removeIf(key -> event.countryCode().equals(key.countryOfArrival()));
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    public Stats getStats() {
+        int size = 0;
+        List<Integer> segmentSizes = new ArrayList<>(segments.length);
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segmentSizes.add(segment.size());
+                size += segment.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return new Stats(size, List.copyOf(segmentSizes), maxEntries, hitCount, missCount, evictions.sum(),
+                lookups == 0 ? 0.0 : (double) hitCount / lookups);
+    }
+
+    private AtomicLong reloadsOf(String countryOfArrival) {
+        return reloadsByDestination.computeIfAbsent(countryOfArrival, code -> new AtomicLong());
+    }
+
+    private Segment segmentFor(QuoteKey key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[Math.floorMod(hash, segments.length)];
+    }
+}
@@ -0,0 +1,174 @@
+package com.tariff.app.service;
+
+import com.tariff.app.entity.Tariff;
+import com.tariff.app.repository.TariffRepository;
+import com.tariff.app.schedule.StringPool;
+import com.tariff.app.schedule.TariffScheduleReloadedEvent;
+import com.tariff.app.schedule.TariffTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps every country's tariff schedule in memory as a {@link TariffTable}, so
+ * quotes are answered without a database round trip.
+ *
+ * Schedules are loaded once the application is ready and can be reloaded per
+ * country at any time. A reload builds the new index off to the side and then
+ * swaps it in atomically, so readers always see either the old or the new
+ * schedule, never a half-built one. Until a country has been loaded, lookups
+ * for it fall back to its repository.
+ */
+@Service
+public class TariffScheduleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TariffScheduleEngine.class);
+
+    @Autowired
+    private CountryTariffRegistry countryTariffRegistry;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Descriptions and text rates are largely identical across countries
+    private final StringPool stringPool = new StringPool();
+
+    // Country code -> schedule. Immutable once published.
+    private final AtomicReference<Map<String, TariffTable>> schedules =
+            new AtomicReference<>(Collections.emptyMap());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        reloadAll();
+    }
+
+    // Disabled unless tariff.schedule.reload-cron is set
+    @Scheduled(cron = "${tariff.schedule.reload-cron:-}")
+    public void reloadAll() {
+        long start = System.currentTimeMillis();
+        for (String countryCode : countryTariffRegistry.getCodes()) {
+            reload(countryCode);
+        }
+        logger.info("Loaded {} tariff schedules in {} ms ({} pooled strings)",
+                schedules.get().size(), System.currentTimeMillis() - start, stringPool.size());
+    }
+
+    /**
+     * Reloads one country's schedule from the database and swaps it in.
+     * If loading fails the previous schedule (if any) stays in place and no
+     * {@link TariffScheduleReloadedEvent} is published.
+     */
+    public void reload(String countryOfArrival) {
+        String countryCode = resolveCountryCode(countryOfArrival);
+        TariffRepository<? extends Tariff> repository = countryTariffRegistry.get(countryCode).repository();
+
+        TariffTable table;
+        try {
+            table = TariffTable.of(countryCode, repository.findAll(), stringPool);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load tariff schedule for {}, keeping previous one", countryCode, e);
+            return;
+        }
+
+        schedules.updateAndGet(current -> {
+            Map<String, TariffTable> next = new HashMap<>(current);
+            next.put(countryCode, table);
+            return Collections.unmodifiableMap(next);
+        });
+        logger.debug("Loaded {} tariff lines for {}", table.size(), countryCode);
+        eventPublisher.publishEvent(new TariffScheduleReloadedEvent(countryCode, table));
+    }
+
+    public Optional<Tariff> findByHts8(String hts8, String countryOfArrival) {
+        String countryCode = resolveCountryCode(countryOfArrival);
+        TariffTable table = schedules.get().get(countryCode);
+        if (table == null) {
+            return getRepository(countryCode).findByHts8(hts8).map(t -> (Tariff) t);
+        }
+        return table.find(hts8);
+    }
+
+    /**
+     * Resolves many HTS8 codes for one country at once: a single pass over the
+     * in-memory schedule, or a single IN query if it has not been loaded.
+     * Codes with no tariff line are absent from the result.
+     */
+    public Map<String, Tariff> findAllByHts8(Collection<String> hts8s, String countryOfArrival) {
+        String countryCode = resolveCountryCode(countryOfArrival);
+        Map<String, Tariff> found = new HashMap<>(hts8s.size() * 4 / 3 + 1);
+        TariffTable table = schedules.get().get(countryCode);
+        if (table == null) {
+            for (Tariff tariff : getRepository(countryCode).findByHts8In(hts8s)) {
+                found.putIfAbsent(tariff.getHts8(), tariff);
+            }
+            return found;
+        }
+        for (String hts8 : hts8s) {
+            table.find(hts8).ifPresent(tariff -> found.put(hts8, tariff));
+        }
+        return found;
+    }
+
+    /**
+     * Looks up one HTS8 code in every country's schedule, by ISO code in
+     * registration order. Countries without a matching line are absent from
+     * the result.
+     */
+    public Map<String, Tariff> findByHts8InAllCountries(String hts8) {
+        Map<String, TariffTable> current = schedules.get();
+        if (!current.keySet().containsAll(countryTariffRegistry.getCodes())) {
+            // Some countries still answer from the database, so query them concurrently
+            return countryTariffRegistry.fanOut(country -> findByHts8(hts8, country.code()).orElse(null));
+        }
+        // In-memory lookups are cheaper than scheduling a task per country
+        Map<String, Tariff> found = new LinkedHashMap<>();
+        for (String countryCode : countryTariffRegistry.getCodes()) {
+            current.get(countryCode).find(hts8).ifPresent(tariff -> found.put(countryCode, tariff));
+        }
+        return found;
+    }
+
+    /**
+     * Returns the loaded schedule for a country, or empty if it has not been loaded.
+     */
+    public Optional<TariffTable> getTable(String countryOfArrival) {
+        return Optional.ofNullable(schedules.get().get(resolveCountryCode(countryOfArrival)));
+    }
+
+    /**
+     * Returns the repository backing a country's schedule, for queries the
+     * in-memory table doesn't answer.
+     */
+    public TariffRepository<? extends Tariff> getRepository(String countryOfArrival) {
+        return countryTariffRegistry.get(countryOfArrival).repository();
+    }
+
+    public boolean isLoaded(String countryOfArrival) {
+        return schedules.get().containsKey(resolveCountryCode(countryOfArrival));
+    }
+
+    public Set<String> getCountryCodes() {
+        return countryTariffRegistry.getCodes();
+    }
+
+    /**
+     * Maps an ISO code or country name to one of the supported ISO codes.
+     * Unknown or missing values resolve to the US schedule.
+     */
+    public String resolveCountryCode(String countryOfArrival) {
+        return countryTariffRegistry.resolveCode(countryOfArrival);
+    }
+}
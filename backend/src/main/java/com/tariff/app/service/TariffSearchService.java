@@ -0,0 +1,190 @@
+package com.tariff.app.service;
+
+import com.tariff.app.dto.TariffInfo;
+import com.tariff.app.entity.Tariff;
+import com.tariff.app.schedule.TariffScheduleReloadedEvent;
+import com.tariff.app.schedule.TariffSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory HTS8 and description search across the tariff schedules.
+ *
+ * Results are ranked in tiers: a query made of digits (and dots) matches HTS8
+ * prefixes, in code order; any other query matches descriptions containing
+ * every query word as a word prefix, with descriptions that start with the
+ * whole query first. Within a tier, results follow registry country order and
+ * then HTS order, so paging is stable.
+ */
+@Service
+public class TariffSearchService {
+
+    public static final String ALL_COUNTRIES = "ALL";
+
+    @Autowired
+    private CountryTariffRegistry countryTariffRegistry;
+
+    // Country code -> index, replaced whenever a schedule reloads
+    private final AtomicReference<Map<String, TariffSearchIndex>> indexes =
+            new AtomicReference<>(Collections.emptyMap());
+
+    /**
+     * One page of search results and the total number of matches.
+     */
+    public record SearchPage(List<TariffInfo> results, int totalResults) {
+    }
+
+    // Rows of one country's index, in result order
+    private record Segment(String countryCode, TariffSearchIndex index, int[] rows) {
+    }
+
+    @EventListener
+    public void onScheduleReloaded(TariffScheduleReloadedEvent event) {
+        // Built outside the update, which may run more than once if reloads race
+        TariffSearchIndex index = TariffSearchIndex.of(event.table());
+        indexes.updateAndGet(current -> {
+            Map<String, TariffSearchIndex> next = new HashMap<>(current);
+            next.put(event.countryCode(), index);
+            return Collections.unmodifiableMap(next);
+        });
+    }
+
+    /**
+     * Searches one country, or every country when country is "all".
+     * A missing country searches the US schedule; an unknown one matches nothing.
+     */
+    public SearchPage search(String query, String country, int page, int size) {
+        String text = query == null ? "" : query.trim();
+        if (text.isEmpty() || size <= 0 || page < 0) {
+            return new SearchPage(Collections.emptyList(), 0);
+        }
+
+        List<String> countryCodes = resolveCountries(country);
+        Map<String, TariffSearchIndex> current = indexes.get();
+
+        List<Segment> segments = new ArrayList<>();
+        List<TariffInfo> unindexed = new ArrayList<>();
+        if (text.chars().allMatch(c -> c == '.' || (c >= '0' && c <= '9'))) {
+            for (String countryCode : countryCodes) {
+                TariffSearchIndex index = current.get(countryCode);
+                if (index != null) {
+                    segments.add(new Segment(countryCode, index, index.findByHts8Prefix(text)));
+                }
+            }
+        } else {
+            addDescriptionMatches(text, countryCodes, current, segments);
+        }
+        for (String countryCode : countryCodes) {
+            if (!current.containsKey(countryCode)) {
+                // Not indexed yet, fall back to the database for this country
+                unindexed.addAll(searchRepository(countryCode, text));
+            }
+        }
+
+        int total = unindexed.size();
+        for (Segment segment : segments) {
+            total += segment.rows().length;
+        }
+
+        long from = (long) page * size;
+        List<TariffInfo> results = new ArrayList<>(Math.min(size, Math.max(0, total)));
+        long position = 0;
+        for (Segment segment : segments) {
+            int length = segment.rows().length;
+            if (position + length > from && results.size() < size) {
+                int start = (int) Math.max(0, from - position);
+                for (int i = start; i < length && results.size() < size; i++) {
+                    results.add(toTariffInfo(segment, segment.rows()[i]));
+                }
+            }
+            position += length;
+        }
+        for (TariffInfo info : unindexed) {
+            if (position >= from && results.size() < size) {
+                results.add(info);
+            }
+            position++;
+        }
+        return new SearchPage(results, total);
+    }
+
+    private void addDescriptionMatches(String text, List<String> countryCodes,
+                                       Map<String, TariffSearchIndex> current, List<Segment> segments) {
+        List<String> words = TariffSearchIndex.tokenize(text);
+        if (words.isEmpty()) {
+            return;
+        }
+        String lowerCaseText = text.toLowerCase(Locale.ROOT);
+
+        List<Segment> otherMatches = new ArrayList<>();
+        for (String countryCode : countryCodes) {
+            TariffSearchIndex index = current.get(countryCode);
+            if (index == null) {
+                continue;
+            }
+            BitSet matches = index.findByDescriptionWords(words);
+            int[] leading = new int[matches.cardinality()];
+            int[] other = new int[leading.length];
+            int leadingCount = 0;
+            int otherCount = 0;
+            for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+                if (index.descriptionStartsWith(row, lowerCaseText)) {
+                    leading[leadingCount++] = row;
+                } else {
+                    other[otherCount++] = row;
+                }
+            }
+            segments.add(new Segment(countryCode, index, Arrays.copyOf(leading, leadingCount)));
+            otherMatches.add(new Segment(countryCode, index, Arrays.copyOf(other, otherCount)));
+        }
+        segments.addAll(otherMatches);
+    }
+
+    private List<String> resolveCountries(String country) {
+        if (country == null || country.isBlank()) {
+            return List.of(CountryTariffRegistry.DEFAULT_COUNTRY);
+        }
+        if (ALL_COUNTRIES.equalsIgnoreCase(country.trim())) {
+            return new ArrayList<>(countryTariffRegistry.getCodes());
+        }
+        return countryTariffRegistry.find(country)
+                .map(found -> List.of(found.code()))
+                .orElse(Collections.emptyList());
+    }
+
+    private List<TariffInfo> searchRepository(String countryCode, String text) {
+        List<TariffInfo> results = new ArrayList<>();
+        for (Tariff tariff : countryTariffRegistry.get(countryCode).repository().findByHts8OrDescriptionContaining(text)) {
+            results.add(toTariffInfo(countryCode, tariff));
+        }
+        return results;
+    }
+
+    private TariffInfo toTariffInfo(Segment segment, int row) {
+        return toTariffInfo(segment.countryCode(), segment.index().getTable().row(row));
+    }
+
+    private TariffInfo toTariffInfo(String countryCode, Tariff tariff) {
+        TariffInfo info = new TariffInfo(
+            tariff.getHts8(),
+            tariff.getBriefDescription(),
+            tariff.getMfnTextRate(),
+            tariff.getMfnAdValRate(),
+            tariff.getMfnSpecificRate(),
+            tariff.getMfnOtherRate()
+        );
+        info.setCountryCode(countryCode);
+        return info;
+    }
+}
@@ -1,221 +1,351 @@
 package com.tariff.app.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tariff.app.dto.HtsSuggestion;
+import com.tariff.app.dto.TariffBatchCalculationResponse;
 import com.tariff.app.dto.TariffCalculationRequest;
 import com.tariff.app.dto.TariffCalculationResponse;
+import com.tariff.app.dto.TariffComparisonResponse;
 import com.tariff.app.dto.TariffInfo;
 import com.tariff.app.entity.Tariff;
-import com.tariff.app.entity.USTariff;
-import com.tariff.app.repository.USTariffRepository;
-import com.tariff.app.repository.ChinaTariffRepository;
-import com.tariff.app.repository.SingaporeTariffRepository;
-import com.tariff.app.repository.UKTariffRepository;
-import com.tariff.app.repository.JapanTariffRepository;
-import com.tariff.app.repository.SouthKoreaTariffRepository;
-import com.tariff.app.repository.CanadaTariffRepository;
-import com.tariff.app.repository.AustraliaTariffRepository;
-import com.tariff.app.repository.FranceTariffRepository;
-import com.tariff.app.repository.IndiaTariffRepository;
-import com.tariff.app.repository.IndonesiaTariffRepository;
-import com.tariff.app.repository.IsraelTariffRepository;
-import com.tariff.app.repository.ItalyTariffRepository;
-import com.tariff.app.repository.MexicoTariffRepository;
-import com.tariff.app.repository.SaudiArabiaTariffRepository;
-import com.tariff.app.repository.SouthAfricaTariffRepository;
-import com.tariff.app.repository.TurkeyTariffRepository;
-import com.tariff.app.repository.BrazilTariffRepository;
+import com.tariff.app.schedule.EffectiveRates;
+import com.tariff.app.schedule.PreferenceProgram;
+import com.tariff.app.schedule.RateExpression;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Optional;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 public class TariffService {
     
     @Autowired
-    private USTariffRepository usTariffRepository;
+    private TariffScheduleEngine tariffScheduleEngine;
     @Autowired
-    private ChinaTariffRepository chinaTariffRepository;
+    private TariffSearchService tariffSearchService;
     @Autowired
-    private SingaporeTariffRepository singaporeTariffRepository;
+    private HtsSuggestionService htsSuggestionService;
     @Autowired
-    private UKTariffRepository ukTariffRepository;
+    private CountryTariffRegistry countryTariffRegistry;
     @Autowired
-    private JapanTariffRepository japanTariffRepository;
+    private TariffQuoteCache tariffQuoteCache;
     @Autowired
-    private SouthKoreaTariffRepository southKoreaTariffRepository;
+    private PreferenceProgramResolver preferenceProgramResolver;
     @Autowired
-    private CanadaTariffRepository canadaTariffRepository;
+    private ObjectMapper objectMapper;
     @Autowired
-    private AustraliaTariffRepository australiaTariffRepository;
-    @Autowired
-    private FranceTariffRepository franceTariffRepository;
-    @Autowired
-    private IndiaTariffRepository indiaTariffRepository;
-    @Autowired
-    private IndonesiaTariffRepository indonesiaTariffRepository;
-    @Autowired
-    private IsraelTariffRepository israelTariffRepository;
-    @Autowired
-    private ItalyTariffRepository italyTariffRepository;
-    @Autowired
-    private MexicoTariffRepository mexicoTariffRepository;
-    @Autowired
-    private SaudiArabiaTariffRepository saudiArabiaTariffRepository;
-    @Autowired
-    private SouthAfricaTariffRepository southAfricaTariffRepository;
-    @Autowired
-    private TurkeyTariffRepository turkeyTariffRepository;
-    @Autowired
-    private BrazilTariffRepository brazilTariffRepository;
+    private Scheduler blockingIoScheduler;
+
+    @Value("${tariff.stream.chunk-size:256}")
+    private int streamChunkSize;
 
-    // Method to get the appropriate repository based on countryOfArrival
+    // Resolve the tariff line from the in-memory schedule for countryOfArrival
     private Optional<Tariff> findTariffByHts8(String hts8, String countryOfArrival) {
-        switch (countryOfArrival.toUpperCase()) {
-            case "AU":
-            case "AUSTRALIA":
-                return australiaTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "BR":
-            case "BRAZIL":
-                return brazilTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "CA":
-            case "CANADA":
-                return canadaTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "CN":
-            case "CHINA":
-                return chinaTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "FR":
-            case "FRANCE":
-                return franceTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "IN":
-            case "INDIA":
-                return indiaTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "ID":
-            case "INDONESIA":
-                return indonesiaTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "IL":
-            case "ISRAEL":
-                return israelTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "IT":
-            case "ITALY":
-                return italyTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "JP":
-            case "JAPAN":
-                return japanTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "MX":
-            case "MEXICO":
-                return mexicoTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "SA":
-            case "SAUDI_ARABIA":
-                return saudiArabiaTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "SG":
-            case "SINGAPORE":
-                return singaporeTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "ZA":
-            case "SOUTH_AFRICA":
-                return southAfricaTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "KR":
-            case "SOUTH_KOREA":
-                return southKoreaTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "TR":
-            case "TURKEY":
-                return turkeyTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "GB":
-            case "UK":
-                return ukTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-            case "US":
-            case "USA":
-            default:
-                return usTariffRepository.findByHts8(hts8).map(t -> (Tariff) t);
-        }
+        return tariffScheduleEngine.findByHts8(hts8, countryOfArrival);
     }
 
     public TariffCalculationResponse calculateTariff(TariffCalculationRequest request) {
-        String countryOfArrival = request.getCountryOfArrival();
-        String countryCode = request.getOriginCountry();
-        ArrayList<String> dutyTypes = new ArrayList<>();
+        // Rates depend only on (code, origin, destination), so they're cached and only the item value varies
+        String countryOfArrival = tariffScheduleEngine.resolveCountryCode(request.getCountryOfArrival());
+        String originCountry = TariffQuoteCache.normalizeOrigin(request.getOriginCountry());
+        TariffQuoteCache.QuoteKey key = new TariffQuoteCache.QuoteKey(
+            request.getHts8(), originCountry, countryOfArrival);
+        Optional<EffectiveRates> rates = tariffQuoteCache.get(key, () ->
+            findTariffByHts8(request.getHts8(), countryOfArrival)
+                .map(tariff -> resolveEffectiveRates(tariff, originCountry)));
+        return quote(request, rates);
+    }
 
-        // Get the appropriate tariff based on countryOfArrival
-        Optional<? extends Tariff> tariffOptional = findTariffByHts8(request.getHts8(), countryOfArrival);
+    public TariffQuoteCache.Stats getQuoteCacheStats() {
+        return tariffQuoteCache.getStats();
+    }
 
-        if (tariffOptional.isPresent()) {
-            Tariff tariff = tariffOptional.get();
-            
-            // Extract basic tariff information
-            Double mfnAdValRate = tariff.getMfnAdValRate() != null ? tariff.getMfnAdValRate() : 0.0;
-            Double mfnSpecificRate = tariff.getMfnSpecificRate() != null ? tariff.getMfnSpecificRate() : 0.0;
-            Double mfnOtherRate = tariff.getMfnOtherRate() != null ? tariff.getMfnOtherRate() : 0.0;
-            
-            // For US tariffs, apply special rates based on origin country
-            Double AdValRate = mfnAdValRate;
-            Double SpecificRate = mfnSpecificRate;
-            Double OtherRate = mfnOtherRate;
-            Double col2AdValRate = 0.0;
-            Double col2SpecificRate = 0.0;
-            Double col2OtherRate = 0.0;
+    public TariffBatchCalculationResponse calculateTariffBatch(List<TariffCalculationRequest> lines) {
+        // Group codes by destination so each country's tariffs are resolved in one pass
+        String[] countryCodes = new String[lines.size()];
+        Map<String, Set<String>> hts8sByCountry = new HashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            countryCodes[i] = tariffScheduleEngine.resolveCountryCode(lines.get(i).getCountryOfArrival());
+            hts8sByCountry.computeIfAbsent(countryCodes[i], k -> new HashSet<>()).add(lines.get(i).getHts8());
+        }
+        Map<String, Map<String, Tariff>> tariffsByCountry = new HashMap<>();
+        hts8sByCountry.forEach((countryCode, hts8s) ->
+            tariffsByCountry.put(countryCode, tariffScheduleEngine.findAllByHts8(hts8s, countryCode)));
 
-            col2AdValRate = tariff.getCol2AdValRate() != null ? tariff.getCol2AdValRate() : 0.0;
-            col2SpecificRate = tariff.getCol2SpecificRate() != null ? tariff.getCol2SpecificRate() : 0.0;
-            col2OtherRate = tariff.getCol2OtherRate() != null ? tariff.getCol2OtherRate() : 0.0;
+        // One level of parallelism over all lines, however they split across countries
+        TariffCalculationResponse[] results = new TariffCalculationResponse[lines.size()];
+        IntStream.range(0, lines.size()).parallel().forEach(i -> {
+            TariffCalculationRequest line = lines.get(i);
+            results[i] = calculateTariff(line, Optional.ofNullable(tariffsByCountry.get(countryCodes[i]).get(line.getHts8())));
+        });
 
-            // Apply special rates based on origin country
-            switch (countryCode) {
-                case "JO":
-                    AdValRate = tariff.getJordanAdValRate() != null ? tariff.getJordanAdValRate() : mfnAdValRate;
-                    SpecificRate = tariff.getJordanSpecificRate() != null ? tariff.getJordanSpecificRate() : mfnSpecificRate;
-                    OtherRate = tariff.getJordanOtherRate() != null ? tariff.getJordanOtherRate() : mfnOtherRate;
-                    col2AdValRate = 0.0;
-                    col2SpecificRate = 0.0;
-                    col2OtherRate = 0.0;
-                    break;
-                case "SG":
-                    AdValRate = tariff.getSingaporeAdValRate() != null ? tariff.getSingaporeAdValRate() : mfnAdValRate;
-                    SpecificRate = tariff.getSingaporeSpecificRate() != null ? tariff.getSingaporeSpecificRate() : mfnSpecificRate;
-                    OtherRate = tariff.getSingaporeOtherRate() != null ? tariff.getSingaporeOtherRate() : mfnOtherRate;
-                    col2AdValRate = 0.0;
-                    col2SpecificRate = 0.0;
-                    col2OtherRate = 0.0;
-                    break;
-                case "AU":
-                    AdValRate = tariff.getAustraliaAdValRate() != null ? tariff.getAustraliaAdValRate() : mfnAdValRate;
-                    SpecificRate = tariff.getAustraliaSpecificRate() != null ? tariff.getAustraliaSpecificRate() : mfnSpecificRate;
-                    OtherRate = tariff.getAustraliaOtherRate() != null ? tariff.getAustraliaOtherRate() : mfnOtherRate;
-                    col2AdValRate = 0.0;
-                    col2SpecificRate = 0.0;
-                    col2OtherRate = 0.0;
-                    break;
-                default:
-                    AdValRate = mfnAdValRate;
-                    SpecificRate = mfnSpecificRate;
-                    OtherRate = mfnOtherRate;
-                    break;
+        int linesFound = 0;
+        double totalItemValue = 0.0;
+        double totalTariffAmount = 0.0;
+        double totalCost = 0.0;
+        for (TariffCalculationResponse result : results) {
+            if (result.isTariffFound()) {
+                linesFound++;
             }
+            totalItemValue += result.getItemValue();
+            totalTariffAmount += result.getTariffAmount();
+            totalCost += result.getTotalCost();
+        }
 
-            // Calculate tariff amounts
-            Double tariffAmount = request.getItemValue() * (AdValRate + col2AdValRate);
-            Double specificRateAmount = request.getItemValue() * (SpecificRate + col2SpecificRate);
-            Double otherRateAmount = request.getItemValue() * (OtherRate + col2OtherRate);
-            Double totalTariffPercentage = AdValRate + SpecificRate + OtherRate + col2AdValRate + col2SpecificRate + col2OtherRate;
-            Double totalCost = request.getItemValue() + tariffAmount + specificRateAmount + otherRateAmount;
-            
-            return new TariffCalculationResponse(
+        return new TariffBatchCalculationResponse(
+            Arrays.asList(results),
+            results.length,
+            linesFound,
+            totalItemValue,
+            totalTariffAmount,
+            totalCost
+        );
+    }
+
+    /**
+     * Prices a stream of newline-delimited JSON requests. Lines are read only as
+     * fast as responses are consumed, and at most a couple of chunks of
+     * tariff.stream.chunk-size lines are held in memory, however long the input.
+     */
+    public Flux<TariffCalculationResponse> calculateTariffStream(InputStream input) {
+        Flux<StreamLine> lines = Flux.using(
+            // The servlet container owns the request stream, so the parser must not close it
+            () -> objectMapper.readerFor(TariffCalculationRequest.class)
+                    .without(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+                    .<TariffCalculationRequest>readValues(input),
+            iterator -> Flux.<StreamLine, Boolean>generate(() -> true, (more, sink) -> {
+                if (!more) {
+                    sink.complete();
+                    return false;
+                }
+                try {
+                    if (iterator.hasNextValue()) {
+                        sink.next(StreamLine.of(iterator.nextValue()));
+                    } else {
+                        sink.complete();
+                    }
+                    return true;
+                } catch (DatabindException e) {
+                    // The line was well-formed JSON but not a request; the parser is past it, so carry on
+                    sink.next(new StreamLine(null, "Line is not a tariff request: " + e.getOriginalMessage()));
+                    return true;
+                } catch (JsonProcessingException e) {
+                    // Broken JSON leaves no reliable next line, so report it and stop
+                    sink.next(new StreamLine(null, "Stopped reading, input is not valid JSON: " + e.getOriginalMessage()));
+                    return false;
+                } catch (IOException e) {
+                    sink.error(e);
+                    return false;
+                }
+            }),
+            iterator -> {
+                try {
+                    iterator.close();
+                } catch (IOException ignored) {
+                    // Nothing left to release
+                }
+            });
+
+        return lines
+            .subscribeOn(blockingIoScheduler)
+            .buffer(streamChunkSize)
+            .concatMap(chunk -> Flux.fromIterable(calculateStreamChunk(chunk)), 1);
+    }
+
+    /**
+     * The checks the batch endpoint makes on each line before quoting it.
+     */
+    public static boolean isValidLine(TariffCalculationRequest line) {
+        return line != null && line.getHts8() != null && line.getItemValue() != null;
+    }
+
+    // Once streaming has started the status can't change, so a line that can't be quoted gets an error line in its place
+    private List<TariffCalculationResponse> calculateStreamChunk(List<StreamLine> chunk) {
+        List<TariffCalculationRequest> valid = chunk.stream()
+                .filter(line -> line.error() == null)
+                .map(StreamLine::request)
+                .collect(Collectors.toList());
+        Iterator<TariffCalculationResponse> quotes = calculateTariffBatch(valid).getLines().iterator();
+        List<TariffCalculationResponse> results = new ArrayList<>(chunk.size());
+        for (StreamLine line : chunk) {
+            if (line.error() == null) {
+                results.add(quotes.next());
+            } else {
+                TariffCalculationResponse invalid = new TariffCalculationResponse();
+                invalid.setHts8(line.request() != null ? line.request().getHts8() : null);
+                invalid.setError(line.error());
+                results.add(invalid);
+            }
+        }
+        return results;
+    }
+
+    // One parsed line of a stream, validated as it is read; error is null for a line that can be quoted
+    private record StreamLine(TariffCalculationRequest request, String error) {
+        static StreamLine of(TariffCalculationRequest request) {
+            return new StreamLine(request, isValidLine(request) ? null : "hts8 and itemValue are required");
+        }
+    }
+
+    /**
+     * Quotes one product from one origin into every supported arrival country,
+     * cheapest landed cost first. Countries with no tariff line for the code
+     * are listed separately rather than ranked.
+     */
+    public TariffComparisonResponse compareLandedCost(String hts8, String originCountry, Double itemValue, Double itemQuantity,
+                                                      String quantityUnit) {
+        Map<String, Tariff> tariffs = tariffScheduleEngine.findByHts8InAllCountries(hts8);
+
+        List<TariffComparisonResponse.DestinationQuote> quotes = new ArrayList<>(tariffs.size());
+        List<String> unavailableIn = new ArrayList<>();
+        for (String countryCode : tariffScheduleEngine.getCountryCodes()) {
+            Tariff tariff = tariffs.get(countryCode);
+            if (tariff == null) {
+                unavailableIn.add(countryCode);
+                continue;
+            }
+            TariffCalculationRequest request = new TariffCalculationRequest();
+            request.setHts8(hts8);
+            request.setItemValue(itemValue);
+            request.setItemQuantity(itemQuantity);
+            request.setQuantityUnit(quantityUnit);
+            request.setOriginCountry(originCountry);
+            request.setCountryOfArrival(countryCode);
+            quotes.add(new TariffComparisonResponse.DestinationQuote(
+                0, countryCode, countryTariffRegistry.getName(countryCode), calculateTariff(request, Optional.of(tariff))
+            ));
+        }
+
+        quotes.sort(Comparator.comparing(quote -> quote.getCalculation().getTotalCost()));
+        for (int i = 0; i < quotes.size(); i++) {
+            quotes.get(i).setRank(i + 1);
+        }
+        return new TariffComparisonResponse(hts8, originCountry, itemValue, quotes, unavailableIn);
+    }
+
+    private TariffCalculationResponse calculateTariff(TariffCalculationRequest request, Optional<? extends Tariff> tariffOptional) {
+        return quote(request, tariffOptional.map(tariff -> resolveEffectiveRates(tariff, request.getOriginCountry())));
+    }
+
+    // The rates that apply to a tariff line for goods from originCountry, col2 rates included
+    private EffectiveRates resolveEffectiveRates(Tariff tariff, String originCountry) {
+        // Extract basic tariff information
+        double mfnAdValRate = tariff.getMfnAdValRate() != null ? tariff.getMfnAdValRate() : 0.0;
+        double mfnSpecificRate = tariff.getMfnSpecificRate() != null ? tariff.getMfnSpecificRate() : 0.0;
+        double mfnOtherRate = tariff.getMfnOtherRate() != null ? tariff.getMfnOtherRate() : 0.0;
+        if (tariff.getMfnAdValRate() == null && tariff.getMfnSpecificRate() == null && tariff.getMfnOtherRate() == null) {
+            // No numeric MFN rates on the line, fall back to what the text rate says
+            RateExpression textRate = tariff.getMfnRate();
+            mfnAdValRate = textRate.getAdValoremRate();
+            mfnSpecificRate = textRate.getSpecificRate();
+            mfnOtherRate = textRate.getOtherRate();
+        }
+        
+        // Numeric columns carry no unit, so it comes from the text rate; programs quote in the same units
+        RateExpression textRate = tariff.getMfnRate();
+        String specificUnit = textRate.getSpecificUnit();
+        String otherUnit = textRate.getOtherUnit();
+
+        PreferenceProgram program = preferenceProgramResolver.resolve(originCountry);
+        if (program.isGeneral()) {
+            // No preference: MFN plus any column 2 rates
+            double col2AdValRate = tariff.getCol2AdValRate() != null ? tariff.getCol2AdValRate() : 0.0;
+            double col2SpecificRate = tariff.getCol2SpecificRate() != null ? tariff.getCol2SpecificRate() : 0.0;
+            double col2OtherRate = tariff.getCol2OtherRate() != null ? tariff.getCol2OtherRate() : 0.0;
+            return new EffectiveRates(
                 tariff.getHts8(),
                 tariff.getBriefDescription(),
                 tariff.getMfnTextRate(),
+                mfnAdValRate + col2AdValRate,
+                mfnSpecificRate + col2SpecificRate,
+                specificUnit,
+                mfnOtherRate + col2OtherRate,
+                otherUnit
+            );
+        }
+
+        // The program's rates where the line has them, MFN otherwise; column 2 doesn't apply
+        return new EffectiveRates(
+            tariff.getHts8(),
+            tariff.getBriefDescription(),
+            tariff.getMfnTextRate(),
+            PreferenceProgram.rateOrMfn(tariff, program.adValRate(), mfnAdValRate),
+            PreferenceProgram.rateOrMfn(tariff, program.specificRate(), mfnSpecificRate),
+            specificUnit,
+            PreferenceProgram.rateOrMfn(tariff, program.otherRate(), mfnOtherRate),
+            otherUnit
+        );
+    }
+
+    private TariffCalculationResponse quote(TariffCalculationRequest request, Optional<EffectiveRates> ratesOptional) {
+        ArrayList<String> dutyTypes = new ArrayList<>();
+
+        if (ratesOptional.isPresent()) {
+            EffectiveRates rates = ratesOptional.get();
+
+            // Ad valorem rates apply to the value, specific rates to each unit of quantity
+            double itemValue = request.getItemValue();
+            String quantityUnit = RateExpression.normalizeUnit(request.getQuantityUnit());
+            double duty = rates.adValoremDuty(itemValue);
+            // A specific duty that can't be charged is left out and the quote flagged, never priced at zero silently
+            String error = null;
+            if (rates.hasSpecificDuty()) {
+                if (request.getItemQuantity() == null) {
+                    error = "itemQuantity is required for the specific duty in " + rates.mfnTextRate()
+                        + "; only the ad valorem duty is included";
+                } else {
+                    duty += rates.specificDuty(request.getItemQuantity(), quantityUnit);
+                    String uncoveredUnit = rates.uncoveredUnit(quantityUnit);
+                    if (uncoveredUnit != null) {
+                        error = "The specific duty per " + uncoveredUnit + " in " + rates.mfnTextRate()
+                            + " needs a quantity in " + uncoveredUnit + ", not " + (quantityUnit != null ? quantityUnit
+                            : rates.specificUnit()) + "; it is not included";
+                    }
+                }
+            }
+            Double tariffAmount = duty;
+            Double totalCost = itemValue + tariffAmount;
+            // Overall duty as a fraction of the value, specific duties included
+            Double totalTariffPercentage = itemValue > 0 ? tariffAmount / itemValue : rates.adValRate();
+            
+            TariffCalculationResponse response = new TariffCalculationResponse(
+                rates.hts8(),
+                rates.briefDescription(),
+                rates.mfnTextRate(),
                 request.getItemValue(),
                 request.getItemQuantity(),
                 request.getOriginCountry(),
-                AdValRate + col2AdValRate,
-                SpecificRate + col2SpecificRate,
-                OtherRate + col2OtherRate,
+                rates.adValRate(),
+                rates.specificRate(),
+                rates.otherRate(),
                 tariffAmount,
                 totalCost,
                 true,
                 totalTariffPercentage,
                 dutyTypes
             );
+            response.setQuantityUnit(request.getQuantityUnit());
+            response.setError(error);
+            return response;
         } else {
             // No tariff found, return response with zero tariff
             return new TariffCalculationResponse(
@@ -243,7 +373,7 @@ public class TariffService {
         
         if (tariffOptional.isPresent()) {
             Tariff tariff = tariffOptional.get();
-            return new TariffInfo(
+            TariffInfo info = new TariffInfo(
                 tariff.getHts8(), 
                 tariff.getBriefDescription(), 
                 tariff.getMfnTextRate(), 
@@ -251,23 +381,18 @@ public class TariffService {
                 tariff.getMfnSpecificRate(), 
                 tariff.getMfnOtherRate()
             );
+            info.setCountryCode(tariffScheduleEngine.resolveCountryCode(countryOfArrival));
+            return info;
         } else {
             return null;
         }
     }
     
-    public List<TariffInfo> searchTariffs(String searchTerm) {
-        // For now, search only in US tariffs - you might want to extend this to search across all countries
-        List<USTariff> tariffs = usTariffRepository.findByHts8OrDescriptionContaining(searchTerm);
-        return tariffs.stream()
-                .map(tariff -> new TariffInfo(
-                    tariff.getHts8(), 
-                    tariff.getBriefDescription(), 
-                    tariff.getMfnTextRate(), 
-                    tariff.getMfnAdValRate(), 
-                    tariff.getMfnSpecificRate(), 
-                    tariff.getMfnOtherRate()
-                ))
-                .collect(Collectors.toList());
+    public TariffSearchService.SearchPage searchTariffs(String searchTerm, String country, int page, int size) {
+        return tariffSearchService.search(searchTerm, country, page, size);
+    }
+
+    public List<HtsSuggestion> suggestHtsCodes(String productDescription, int limit) {
+        return htsSuggestionService.suggest(productDescription, limit);
     }
 }
\ No newline at end of file
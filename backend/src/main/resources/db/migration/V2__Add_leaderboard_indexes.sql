@@ -0,0 +1,10 @@
+-- Leaderboard and rank queries read game_scores in (score DESC, created_at)
+-- order, optionally within one game type, and stop at their LIMIT. These
+-- indexes serve that order directly; rank counts by game type and score are
+-- answered from idx_game_scores_game_type_score alone.
+CREATE INDEX IF NOT EXISTS idx_game_scores_game_type_score ON game_scores(game_type, score DESC, created_at);
+CREATE INDEX IF NOT EXISTS idx_game_scores_score_created_at ON game_scores(score DESC, created_at);
+
+-- Both are prefixes of the indexes above
+DROP INDEX IF EXISTS idx_game_scores_game_type;
+DROP INDEX IF EXISTS idx_game_scores_score;
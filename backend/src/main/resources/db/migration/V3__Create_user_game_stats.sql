@@ -0,0 +1,31 @@
+-- Per user, per game type totals, updated in the same transaction as every
+-- game_scores write so the stats endpoints read one row per game type.
+--
+-- The rank, profile and stats endpoints read only this table, so it must
+-- cover every score already in game_scores. The backfill below does that on
+-- PostgreSQL (ON CONFLICT is PostgreSQL syntax). Elsewhere, or if this file
+-- was never applied, GameStatsService inserts the missing rows from
+-- game_scores at startup, and a save that finds its row missing rebuilds it.
+CREATE TABLE IF NOT EXISTS user_game_stats (
+    user_id UUID NOT NULL,
+    game_type VARCHAR(50) NOT NULL,
+    games_played BIGINT NOT NULL DEFAULT 0,
+    score_sum BIGINT NOT NULL DEFAULT 0,
+    min_score INTEGER,
+    best_score INTEGER,
+    points_earned BIGINT NOT NULL DEFAULT 0,
+    perfect_count BIGINT NOT NULL DEFAULT 0,
+    last_played_at TIMESTAMP,
+    
+    CONSTRAINT pk_user_game_stats PRIMARY KEY (user_id, game_type),
+    CONSTRAINT fk_user_game_stats_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Backfill from the scores already played
+INSERT INTO user_game_stats (user_id, game_type, games_played, score_sum, min_score, best_score,
+                             points_earned, perfect_count, last_played_at)
+SELECT user_id, game_type, COUNT(*), SUM(score), MIN(score), MAX(score),
+       COALESCE(SUM(points_earned), 0), SUM(CASE WHEN perfect_score THEN 1 ELSE 0 END), MAX(created_at)
+FROM game_scores
+GROUP BY user_id, game_type
+ON CONFLICT (user_id, game_type) DO NOTHING;
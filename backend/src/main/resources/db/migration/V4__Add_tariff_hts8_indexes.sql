@@ -0,0 +1,41 @@
+-- Tariff lookups, searches and product pages read the tariffrates_* tables by
+-- hts8, and product pages walk them in (hts8, id) order, since several lines
+-- can share a code. One index per table serves both; it replaces the
+-- hts8-only index that schema generation may already have created.
+CREATE INDEX IF NOT EXISTS idx_tariffrates_australia_hts8_id ON tariffrates_australia(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_brazil_hts8_id ON tariffrates_brazil(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_canada_hts8_id ON tariffrates_canada(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_china_hts8_id ON tariffrates_china(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_france_hts8_id ON tariffrates_france(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_india_hts8_id ON tariffrates_india(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_indonesia_hts8_id ON tariffrates_indonesia(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_israel_hts8_id ON tariffrates_israel(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_italy_hts8_id ON tariffrates_italy(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_japan_hts8_id ON tariffrates_japan(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_mexico_hts8_id ON tariffrates_mexico(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_saudi_arabia_hts8_id ON tariffrates_saudi_arabia(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_singapore_hts8_id ON tariffrates_singapore(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_south_africa_hts8_id ON tariffrates_south_africa(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_south_korea_hts8_id ON tariffrates_south_korea(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_turkey_hts8_id ON tariffrates_turkey(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_uk_hts8_id ON tariffrates_uk(hts8, id);
+CREATE INDEX IF NOT EXISTS idx_tariffrates_us_hts8_id ON tariffrates_us(hts8, id);
+
+DROP INDEX IF EXISTS idx_tariffrates_australia_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_brazil_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_canada_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_china_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_france_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_india_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_indonesia_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_israel_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_italy_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_japan_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_mexico_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_saudi_arabia_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_singapore_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_south_africa_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_south_korea_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_turkey_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_uk_hts8;
+DROP INDEX IF EXISTS idx_tariffrates_us_hts8;
@@ -0,0 +1,78 @@
+package com.tariff.app.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoreDistributionTest {
+
+    @Test
+    void countsScoresAboveAndBelow() {
+        ScoreDistribution distribution = new ScoreDistribution();
+        distribution.add(10, 1);
+        distribution.add(20, 2);
+        distribution.add(30, 1);
+
+        assertThat(distribution.countsAround(20)).isEqualTo(new ScoreDistribution.Counts(1, 1, 4));
+        assertThat(distribution.countsAround(10)).isEqualTo(new ScoreDistribution.Counts(3, 0, 4));
+        assertThat(distribution.countsAround(30)).isEqualTo(new ScoreDistribution.Counts(0, 3, 4));
+        assertThat(distribution.countsAround(25)).isEqualTo(new ScoreDistribution.Counts(1, 3, 4));
+    }
+
+    @Test
+    void removeTakesOneScoreBackOut() {
+        ScoreDistribution distribution = new ScoreDistribution();
+        distribution.add(20, 2);
+        distribution.add(30, 1);
+
+        distribution.remove(20);
+        distribution.remove(30);
+
+        assertThat(distribution.countsAround(20)).isEqualTo(new ScoreDistribution.Counts(0, 0, 1));
+    }
+
+    @Test
+    void growingKeepsTheCountsAlreadyAdded() {
+        ScoreDistribution distribution = new ScoreDistribution();
+        for (int score = 0; score <= 10000; score += 500) {
+            distribution.add(score, 1);
+        }
+
+        // Past the initial 0..10000 buckets, so the tree is rebuilt larger
+        distribution.add(50000, 3);
+        distribution.add(10001, 1);
+
+        assertThat(distribution.countsAround(0)).isEqualTo(new ScoreDistribution.Counts(24, 0, 25));
+        assertThat(distribution.countsAround(5000)).isEqualTo(new ScoreDistribution.Counts(14, 10, 25));
+        assertThat(distribution.countsAround(10001)).isEqualTo(new ScoreDistribution.Counts(3, 21, 25));
+        assertThat(distribution.countsAround(50000)).isEqualTo(new ScoreDistribution.Counts(0, 22, 25));
+    }
+
+    @Test
+    void scoresAboveTheLargestBucketSeenCountEverythingBelow() {
+        ScoreDistribution distribution = new ScoreDistribution();
+        distribution.add(100, 2);
+
+        assertThat(distribution.countsAround(1_000_000)).isEqualTo(new ScoreDistribution.Counts(0, 2, 2));
+    }
+
+    @Test
+    void scoresBeyondTheLastBucketTie() {
+        ScoreDistribution distribution = new ScoreDistribution();
+        distribution.add(Integer.MAX_VALUE, 1);
+        distribution.add(Integer.MAX_VALUE - 1, 1);
+        distribution.add(5, 1);
+
+        assertThat(distribution.countsAround(Integer.MAX_VALUE)).isEqualTo(new ScoreDistribution.Counts(0, 1, 3));
+    }
+
+    @Test
+    void negativeScoresCountAsZero() {
+        ScoreDistribution distribution = new ScoreDistribution();
+        distribution.add(-5, 1);
+        distribution.add(0, 1);
+        distribution.add(1, 1);
+
+        assertThat(distribution.countsAround(0)).isEqualTo(new ScoreDistribution.Counts(1, 0, 3));
+    }
+}
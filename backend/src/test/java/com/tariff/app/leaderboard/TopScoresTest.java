@@ -0,0 +1,126 @@
+package com.tariff.app.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopScoresTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private static LeaderboardEntry entry(int score, int minutesAfterStart) {
+        return new LeaderboardEntry(UUID.randomUUID(), UUID.randomUUID(), "player", "quiz", score,
+                null, null, START.plusMinutes(minutesAfterStart));
+    }
+
+    @Test
+    void keepsTheBestScoresUpToCapacity() {
+        TopScores top = new TopScores(3);
+        LeaderboardEntry first = entry(90, 0);
+        LeaderboardEntry second = entry(80, 1);
+        LeaderboardEntry third = entry(70, 2);
+
+        top.offer(List.of(third, entry(10, 3), first, second, entry(50, 4)));
+
+        assertThat(top.top(10)).containsExactly(first, second, third);
+        assertThat(top.top(2)).containsExactly(first, second);
+    }
+
+    @Test
+    void ranksTheEarlierOfEqualScoresFirst() {
+        TopScores top = new TopScores(2);
+        LeaderboardEntry earlier = entry(50, 0);
+        LeaderboardEntry later = entry(50, 5);
+
+        top.offer(List.of(later, earlier, entry(50, 10)));
+
+        assertThat(top.top(2)).containsExactly(earlier, later);
+    }
+
+    @Test
+    void offeringTheSameScoreTwiceIsANoOp() {
+        TopScores top = new TopScores(3);
+        LeaderboardEntry score = entry(60, 0);
+
+        top.offer(List.of(score));
+        top.offer(List.of(score));
+
+        assertThat(top.top(3)).containsExactly(score);
+    }
+
+    @Test
+    void removeReportsWhetherTheBoardChanged() {
+        TopScores top = new TopScores(2);
+        LeaderboardEntry onBoard = entry(90, 0);
+        LeaderboardEntry belowBoard = entry(10, 1);
+        top.offer(List.of(onBoard, entry(80, 2), belowBoard));
+
+        assertThat(top.remove(List.of(belowBoard))).isFalse();
+        assertThat(top.remove(List.of(onBoard))).isTrue();
+        assertThat(top.top(2)).hasSize(1);
+    }
+
+    @Test
+    void refillSkipsScoresRemovedWhileItWasLoading() {
+        TopScores top = new TopScores(3);
+        LeaderboardEntry deleted = entry(90, 0);
+        LeaderboardEntry kept = entry(80, 1);
+        top.offer(List.of(deleted));
+
+        // The refill's query read the score before its delete committed
+        top.refill(() -> {
+            top.remove(List.of(deleted));
+            return List.of(deleted, kept);
+        });
+
+        assertThat(top.top(3)).containsExactly(kept);
+    }
+
+    @Test
+    void overlappingRefillsSkipRemovalsUntilTheLastOneFinishes() {
+        TopScores top = new TopScores(3);
+        LeaderboardEntry deleted = entry(90, 0);
+        LeaderboardEntry kept = entry(80, 1);
+
+        top.refill(() -> {
+            top.refill(() -> {
+                top.remove(List.of(deleted));
+                return List.of(kept);
+            });
+            // The inner refill has finished, but this one may still have read the deleted score
+            return List.of(deleted, kept);
+        });
+
+        assertThat(top.top(3)).containsExactly(kept);
+    }
+
+    @Test
+    void removalsAreForgottenOnceNoRefillIsRunning() {
+        TopScores top = new TopScores(3);
+        LeaderboardEntry score = entry(90, 0);
+        top.refill(() -> {
+            top.remove(List.of(score));
+            return List.of();
+        });
+
+        top.refill(() -> List.of(score));
+
+        assertThat(top.top(3)).containsExactly(score);
+    }
+
+    @Test
+    void removalsOutsideARefillAreNotRemembered() {
+        TopScores top = new TopScores(3);
+        LeaderboardEntry score = entry(90, 0);
+        top.offer(List.of(score));
+        top.remove(List.of(score));
+
+        top.refill(() -> List.of(score));
+
+        assertThat(top.top(3)).containsExactly(score);
+    }
+}
@@ -0,0 +1,99 @@
+package com.tariff.app.repository;
+
+import com.tariff.app.entity.SingaporeTariff;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class TariffRepositoryTest {
+
+    @Autowired
+    private SingaporeTariffRepository repository;
+
+    private List<SingaporeTariff> saved;
+
+    @BeforeEach
+    void saveLines() {
+        // Several lines share a code, as the same HTS8 can carry more than one line
+        saved = repository.saveAllAndFlush(List.of(
+            new SingaporeTariff(null, "02011000", "Beef carcasses", 0.26),
+            new SingaporeTariff(null, "01012100", "Pure-bred horses", 0.0),
+            new SingaporeTariff(null, "01011000", "Live horses", 0.0),
+            new SingaporeTariff(null, "01012100", "Pure-bred horses, other", 0.05),
+            new SingaporeTariff(null, "01019000", "Asses", 0.068),
+            new SingaporeTariff(null, "01012100", "Pure-bred horses, breeding", 0.02)));
+    }
+
+    // Every page of the listing, following the (hts8, id) cursor of each full page
+    private List<SingaporeTariff> allPages(int pageSize, String fromHts8, String toHts8) {
+        List<SingaporeTariff> lines = new ArrayList<>();
+        String afterHts8 = null;
+        Long afterId = null;
+        while (true) {
+            List<SingaporeTariff> page = repository.findProductPage(
+                afterHts8, afterId, fromHts8, toHts8, null, null, Limit.of(pageSize));
+            lines.addAll(page);
+            if (page.size() < pageSize) {
+                return lines;
+            }
+            SingaporeTariff last = page.get(page.size() - 1);
+            afterHts8 = last.getHts8();
+            afterId = last.getId();
+        }
+    }
+
+    private List<Long> idsInCodeOrder() {
+        return saved.stream()
+            .sorted((a, b) -> a.getHts8().equals(b.getHts8())
+                ? a.getId().compareTo(b.getId())
+                : a.getHts8().compareTo(b.getHts8()))
+            .map(SingaporeTariff::getId)
+            .toList();
+    }
+
+    @Test
+    void pagesThroughLinesSharingACodeWithoutSkippingOrRepeating() {
+        for (int pageSize = 1; pageSize <= saved.size() + 1; pageSize++) {
+            List<Long> ids = allPages(pageSize, null, null).stream().map(SingaporeTariff::getId).toList();
+
+            assertThat(ids).as("page size %d", pageSize).containsExactlyElementsOf(idsInCodeOrder());
+        }
+    }
+
+    @Test
+    void aPageBoundaryInsideACodeResumesAtTheNextLineOfThatCode() {
+        List<SingaporeTariff> first = repository.findProductPage(null, null, null, null, null, null, Limit.of(2));
+        assertThat(first).extracting(SingaporeTariff::getHts8).containsExactly("01011000", "01012100");
+
+        SingaporeTariff last = first.get(1);
+        List<SingaporeTariff> next = repository.findProductPage(
+            last.getHts8(), last.getId(), null, null, null, null, Limit.of(2));
+
+        assertThat(next).extracting(SingaporeTariff::getHts8).containsExactly("01012100", "01012100");
+        assertThat(next).extracting(SingaporeTariff::getId).allSatisfy(id -> assertThat(id).isGreaterThan(last.getId()));
+    }
+
+    @Test
+    void aCursorWithoutAnIdSkipsEveryLineOfItsCode() {
+        List<SingaporeTariff> page = repository.findProductPage(
+            "01012100", null, null, null, null, null, Limit.of(10));
+
+        assertThat(page).extracting(SingaporeTariff::getHts8).containsExactly("01019000", "02011000");
+    }
+
+    @Test
+    void pagesWithinAnHtsRange() {
+        List<SingaporeTariff> lines = allPages(2, "01012100", "02000000");
+
+        assertThat(lines).extracting(SingaporeTariff::getHts8)
+            .containsExactly("01012100", "01012100", "01012100", "01019000");
+    }
+}
@@ -0,0 +1,78 @@
+package com.tariff.app.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EffectiveRatesTest {
+
+    private static EffectiveRates rates(double adValRate, double specificRate, String specificUnit,
+                                        double otherRate, String otherUnit) {
+        return new EffectiveRates("01012100", "Horses", "MFN Free", adValRate, specificRate, specificUnit,
+                otherRate, otherUnit);
+    }
+
+    @Test
+    void normalizesUnitSpellings() {
+        assertThat(RateExpression.normalizeUnit("Kg.")).isEqualTo("kg");
+        assertThat(RateExpression.normalizeUnit(" kgs ")).isEqualTo("kg");
+        assertThat(RateExpression.normalizeUnit("Litres")).isEqualTo("l");
+        assertThat(RateExpression.normalizeUnit("dozen")).isEqualTo("doz");
+        assertThat(RateExpression.normalizeUnit("No.")).isEqualTo("each");
+        assertThat(RateExpression.normalizeUnit("")).isNull();
+        assertThat(RateExpression.normalizeUnit(null)).isNull();
+    }
+
+    @Test
+    void rateTextsCarryTheirNormalizedUnits() {
+        RateExpression rate = RateExpression.parse("MFN 5.3¢/Kg. + 2¢/liter");
+
+        assertThat(rate.getSpecificUnit()).isEqualTo("kg");
+        assertThat(rate.getOtherUnit()).isEqualTo("l");
+        assertThat(RateExpression.parse("MFN 1.5¢ each").getSpecificUnit()).isEqualTo("each");
+    }
+
+    @Test
+    void chargesAdValoremOnTheItemValue() {
+        assertThat(rates(0.05, 0, null, 0, null).adValoremDuty(200)).isCloseTo(10.0, within(1e-9));
+    }
+
+    @Test
+    void chargesSpecificDutyOnAQuantityInTheRatesUnit() {
+        EffectiveRates rates = rates(0, 0.5, "kg", 0.25, "kg");
+
+        assertThat(rates.specificDuty(10, "kg")).isCloseTo(7.5, within(1e-9));
+        assertThat(rates.specificDuty(10, null)).isCloseTo(7.5, within(1e-9));
+        assertThat(rates.uncoveredUnit("kg")).isNull();
+    }
+
+    @Test
+    void doesNotChargeAQuantityInAnotherUnit() {
+        EffectiveRates rates = rates(0, 0.5, "kg", 0, null);
+
+        assertThat(rates.specificDuty(10, "l")).isZero();
+        assertThat(rates.uncoveredUnit("l")).isEqualTo("kg");
+    }
+
+    @Test
+    void chargesEachPartOfAMixedUnitRateOnlyInItsOwnUnit() {
+        EffectiveRates rates = rates(0, 0.5, "kg", 2.0, "l");
+
+        assertThat(rates.specificDuty(10, "kg")).isCloseTo(5.0, within(1e-9));
+        assertThat(rates.uncoveredUnit("kg")).isEqualTo("l");
+        // Without a unit the quantity is taken as the first part's
+        assertThat(rates.specificDuty(10, null)).isCloseTo(5.0, within(1e-9));
+        assertThat(rates.uncoveredUnit(null)).isEqualTo("l");
+    }
+
+    @Test
+    void aRateWithNoUnitTakesAnyQuantity() {
+        EffectiveRates rates = rates(0, 0.5, null, 0, null);
+
+        assertThat(rates.specificDuty(4, "pr")).isCloseTo(2.0, within(1e-9));
+        assertThat(rates.uncoveredUnit("pr")).isNull();
+        assertThat(rates.hasSpecificDuty()).isTrue();
+        assertThat(rates(0.1, 0, null, 0, null).hasSpecificDuty()).isFalse();
+    }
+}
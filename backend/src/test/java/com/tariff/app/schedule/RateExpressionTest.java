@@ -0,0 +1,75 @@
+package com.tariff.app.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RateExpressionTest {
+
+    @Test
+    void blankTextIsNone() {
+        assertThat(RateExpression.parse(null)).isSameAs(RateExpression.NONE);
+        assertThat(RateExpression.parse("  ")).isSameAs(RateExpression.NONE);
+    }
+
+    @Test
+    void parsesFreeAndUnparsedText() {
+        assertThat(RateExpression.parse("MFN Free").getKind()).isEqualTo(RateExpression.Kind.FREE);
+        assertThat(RateExpression.parse("MFN See heading 9903").getKind()).isEqualTo(RateExpression.Kind.UNPARSED);
+    }
+
+    @Test
+    void parsesAnAdValoremRateAsAFraction() {
+        RateExpression rate = RateExpression.parse("MFN 6.8%");
+
+        assertThat(rate.getKind()).isEqualTo(RateExpression.Kind.AD_VALOREM);
+        assertThat(rate.getAdValoremRate()).isCloseTo(0.068, within(1e-9));
+        assertThat(rate.getSpecificRate()).isZero();
+        assertThat(rate.getDisplayText()).isEqualTo("6.8%");
+    }
+
+    @Test
+    void parsesSpecificRatesInDollarsPerUnit() {
+        assertThat(RateExpression.parse("MFN 5.3¢/kg").getSpecificRate()).isCloseTo(0.053, within(1e-9));
+        assertThat(RateExpression.parse("MFN $1.20/doz.").getSpecificRate()).isCloseTo(1.20, within(1e-9));
+
+        RateExpression each = RateExpression.parse("MFN 1.5¢ each");
+        assertThat(each.getKind()).isEqualTo(RateExpression.Kind.SPECIFIC);
+        assertThat(each.getSpecificRate()).isCloseTo(0.015, within(1e-9));
+    }
+
+    @Test
+    void foldsACompoundRateIntoAdValoremSpecificAndOther() {
+        RateExpression rate = RateExpression.parse("MFN 5.3¢/kg + 2%");
+
+        assertThat(rate.getKind()).isEqualTo(RateExpression.Kind.COMPOUND);
+        assertThat(rate.getParts()).hasSize(2);
+        assertThat(rate.getAdValoremRate()).isCloseTo(0.02, within(1e-9));
+        assertThat(rate.getSpecificRate()).isCloseTo(0.053, within(1e-9));
+        assertThat(rate.getOtherRate()).isZero();
+    }
+
+    @Test
+    void specificPartsAfterTheFirstAreOtherRates() {
+        RateExpression rate = RateExpression.parse("MFN 1.5¢/kg + 3¢/kg + 1¢/kg + 4%");
+
+        assertThat(rate.getKind()).isEqualTo(RateExpression.Kind.COMPOUND);
+        assertThat(rate.getSpecificRate()).isCloseTo(0.015, within(1e-9));
+        assertThat(rate.getOtherRate()).isCloseTo(0.04, within(1e-9));
+        assertThat(rate.getAdValoremRate()).isCloseTo(0.04, within(1e-9));
+    }
+
+    @Test
+    void bareNumbersOverSomethingAreNotRates() {
+        RateExpression rate = RateExpression.parse("MFN 25% see 9903.88/15");
+
+        assertThat(rate.getKind()).isEqualTo(RateExpression.Kind.AD_VALOREM);
+        assertThat(rate.getParts()).hasSize(1);
+    }
+
+    @Test
+    void identicalTextsShareOneInstance() {
+        assertThat(RateExpression.parse("MFN 3.7%")).isSameAs(RateExpression.parse("MFN 3.7%"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.tariff.app.service;
+
+import com.tariff.app.entity.GameScore;
+import com.tariff.app.entity.User;
+import com.tariff.app.entity.UserGameStats;
+import com.tariff.app.entity.UserGameStatsId;
+import com.tariff.app.repository.GameScoreRepository;
+import com.tariff.app.repository.UserGameStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GameStatsServiceTest {
+
+    private static final LocalDateTime LAST_PLAYED = LocalDateTime.of(2025, 3, 1, 9, 30);
+
+    @Mock
+    private UserGameStatsRepository userGameStatsRepository;
+
+    @Mock
+    private GameScoreRepository gameScoreRepository;
+
+    @InjectMocks
+    private GameStatsService gameStatsService;
+
+    private final User user = new User(UUID.randomUUID(), "player", "secret");
+
+    private UserGameStatsId id(String gameType) {
+        return new UserGameStatsId(user.getId(), gameType);
+    }
+
+    // One row of getGameTotalsByUser, in its column order
+    private static Object[] totals(String gameType, long games, long scoreSum, int min, int best,
+                                   long points, long perfect) {
+        return new Object[] {gameType, games, scoreSum, min, best, points, perfect, LAST_PLAYED};
+    }
+
+    private UserGameStats savedStats() {
+        ArgumentCaptor<UserGameStats> saved = ArgumentCaptor.forClass(UserGameStats.class);
+        verify(userGameStatsRepository).save(saved.capture());
+        return saved.getValue();
+    }
+
+    @Test
+    void recordDeletedRecomputesTheRemainingGames() {
+        UserGameStats existing = new UserGameStats(user, "quiz");
+        existing.setGamesPlayed(3L);
+        existing.setBestScore(100);
+        when(userGameStatsRepository.findById(id("quiz"))).thenReturn(Optional.of(existing));
+        when(gameScoreRepository.getGameTotalsByUser(eq(user), anyCollection()))
+                .thenReturn(new ArrayList<>(List.<Object[]>of(totals("quiz", 2, 120, 40, 80, 30, 1))));
+
+        gameStatsService.recordDeleted(user, List.of("quiz"));
+
+        UserGameStats stats = savedStats();
+        assertThat(stats).isSameAs(existing);
+        assertThat(stats.getGamesPlayed()).isEqualTo(2);
+        assertThat(stats.getScoreSum()).isEqualTo(120);
+        assertThat(stats.getMinScore()).isEqualTo(40);
+        // The deleted game was the best one, which only a recompute can take back
+        assertThat(stats.getBestScore()).isEqualTo(80);
+        assertThat(stats.getPointsEarned()).isEqualTo(30);
+        assertThat(stats.getPerfectCount()).isEqualTo(1);
+        assertThat(stats.getLastPlayedAt()).isEqualTo(LAST_PLAYED);
+    }
+
+    @Test
+    void recordDeletedDropsGameTypesWithNoGamesLeft() {
+        when(gameScoreRepository.getGameTotalsByUser(eq(user), anyCollection())).thenReturn(new ArrayList<>());
+
+        gameStatsService.recordDeleted(user, List.of("quiz"));
+
+        verify(userGameStatsRepository).deleteById(id("quiz"));
+        verify(userGameStatsRepository, never()).save(any());
+    }
+
+    @Test
+    void recordDeletedWithNoGameTypesDoesNothing() {
+        gameStatsService.recordDeleted(user, List.of());
+
+        verifyNoInteractions(gameScoreRepository, userGameStatsRepository);
+    }
+
+    @Test
+    void recordSavedAddsToAnExistingRow() {
+        UserGameStats existing = new UserGameStats(user, "quiz");
+        when(userGameStatsRepository.findById(id("quiz"))).thenReturn(Optional.of(existing));
+        GameScore first = new GameScore(user, "quiz", 70, 10);
+        GameScore second = new GameScore(user, "quiz", 90, 20);
+
+        gameStatsService.recordSaved(user, List.of(first, second));
+
+        UserGameStats stats = savedStats();
+        assertThat(stats.getGamesPlayed()).isEqualTo(2);
+        assertThat(stats.getScoreSum()).isEqualTo(160);
+        assertThat(stats.getMinScore()).isEqualTo(70);
+        assertThat(stats.getBestScore()).isEqualTo(90);
+        assertThat(stats.getPointsEarned()).isEqualTo(30);
+        verifyNoInteractions(gameScoreRepository);
+    }
+
+    @Test
+    void recordSavedRebuildsAMissingRowFromGameScores() {
+        when(userGameStatsRepository.findById(id("quiz"))).thenReturn(Optional.empty());
+        // Older scores that predate the stats row, plus the one just saved
+        when(gameScoreRepository.getGameTotalsByUser(eq(user), anyCollection()))
+                .thenReturn(new ArrayList<>(List.<Object[]>of(totals("quiz", 5, 400, 50, 95, 60, 2))));
+
+        gameStatsService.recordSaved(user, List.of(new GameScore(user, "quiz", 95, 20)));
+
+        UserGameStats stats = savedStats();
+        assertThat(stats.getId()).isEqualTo(id("quiz"));
+        assertThat(stats.getGamesPlayed()).isEqualTo(5);
+        assertThat(stats.getScoreSum()).isEqualTo(400);
+        assertThat(stats.getBestScore()).isEqualTo(95);
+    }
+
+    @Test
+    void backfillRetriesWhenItRacesAGameSave() {
+        when(userGameStatsRepository.insertMissingFromGameScores())
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(4);
+
+        gameStatsService.backfillAtStartup();
+
+        verify(userGameStatsRepository, times(2)).insertMissingFromGameScores();
+    }
+}
@@ -0,0 +1,103 @@
+package com.tariff.app.service;
+
+import com.tariff.app.leaderboard.GameScoresChangedEvent;
+import com.tariff.app.leaderboard.LeaderboardEntry;
+import com.tariff.app.leaderboard.ScoreDistribution;
+import com.tariff.app.repository.GameScoreRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreRankServiceTest {
+
+    @Mock
+    private GameScoreRepository gameScoreRepository;
+
+    @InjectMocks
+    private ScoreRankService scoreRankService;
+
+    private static LeaderboardEntry entry(String gameType, int score) {
+        return new LeaderboardEntry(UUID.randomUUID(), UUID.randomUUID(), "player", gameType, score,
+                null, null, LocalDateTime.of(2025, 1, 1, 12, 0));
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    @Test
+    void isEmptyUntilTheFirstBuild() {
+        scoreRankService.onScoresChanged(GameScoresChangedEvent.saved(List.of(entry("quiz", 50))));
+
+        assertThat(scoreRankService.countsAround("quiz", 50)).isEmpty();
+    }
+
+    @Test
+    void buildsFromTheGroupedCounts() {
+        when(gameScoreRepository.countScoresByGameTypeAndScore()).thenReturn(rows(
+                new Object[] {"quiz", 10, 2L},
+                new Object[] {"quiz", 30, 1L},
+                new Object[] {"match", 5, 4L}));
+
+        scoreRankService.rebuild();
+
+        assertThat(scoreRankService.countsAround("quiz", 20)).contains(new ScoreDistribution.Counts(1, 2, 3));
+        assertThat(scoreRankService.countsAround("match", 5)).contains(new ScoreDistribution.Counts(0, 0, 4));
+        assertThat(scoreRankService.countsAround("unknown", 5)).contains(new ScoreDistribution.Counts(0, 0, 0));
+    }
+
+    @Test
+    void replaysEventsThatArriveWhileTheCountQueryRuns() {
+        LeaderboardEntry deleted = entry("quiz", 10);
+        when(gameScoreRepository.countScoresByGameTypeAndScore()).thenAnswer(invocation -> {
+            // Committed after the query read its snapshot, so the counts below miss them
+            scoreRankService.onScoresChanged(GameScoresChangedEvent.saved(List.of(entry("quiz", 40))));
+            scoreRankService.onScoresChanged(GameScoresChangedEvent.deleted(List.of(deleted)));
+            return rows(new Object[] {"quiz", 10, 2L}, new Object[] {"quiz", 30, 1L});
+        });
+
+        scoreRankService.rebuild();
+
+        assertThat(scoreRankService.countsAround("quiz", 30)).contains(new ScoreDistribution.Counts(1, 1, 3));
+    }
+
+    @Test
+    void eventsAfterABuildApplyToItsDistributions() {
+        when(gameScoreRepository.countScoresByGameTypeAndScore()).thenReturn(rows(new Object[] {"quiz", 10, 1L}));
+        scoreRankService.rebuild();
+
+        scoreRankService.onScoresChanged(GameScoresChangedEvent.saved(List.of(entry("quiz", 20), entry("match", 7))));
+
+        assertThat(scoreRankService.countsAround("quiz", 20)).contains(new ScoreDistribution.Counts(0, 1, 2));
+        assertThat(scoreRankService.countsAround("match", 7)).contains(new ScoreDistribution.Counts(0, 0, 1));
+    }
+
+    @Test
+    void aFailedRebuildKeepsTheCurrentDistributions() {
+        when(gameScoreRepository.countScoresByGameTypeAndScore())
+                .thenReturn(rows(new Object[] {"quiz", 10, 1L}))
+                .thenAnswer(invocation -> {
+                    scoreRankService.onScoresChanged(GameScoresChangedEvent.saved(List.of(entry("quiz", 20))));
+                    throw new IllegalStateException("database unavailable");
+                });
+        scoreRankService.rebuild();
+
+        assertThatThrownBy(scoreRankService::rebuild).isInstanceOf(IllegalStateException.class);
+        scoreRankService.onScoresChanged(GameScoresChangedEvent.saved(List.of(entry("quiz", 30))));
+
+        // Both events reached the distributions the failed build would have replaced
+        assertThat(scoreRankService.countsAround("quiz", 20)).contains(new ScoreDistribution.Counts(1, 1, 3));
+    }
+}
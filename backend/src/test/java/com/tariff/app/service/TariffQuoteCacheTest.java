@@ -0,0 +1,153 @@
+package com.tariff.app.service;
+
+import com.tariff.app.schedule.EffectiveRates;
+import com.tariff.app.schedule.TariffScheduleReloadedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TariffQuoteCacheTest {
+
+    private static final TariffQuoteCache.QuoteKey US_KEY = new TariffQuoteCache.QuoteKey("01012100", "CN", "US");
+    private static final TariffQuoteCache.QuoteKey SG_KEY = new TariffQuoteCache.QuoteKey("01012100", "CN", "SG");
+
+    private static TariffQuoteCache cache(int maxEntries, int segments) {
+        TariffQuoteCache cache = new TariffQuoteCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", maxEntries);
+        ReflectionTestUtils.setField(cache, "segmentCount", segments);
+        cache.createSegments();
+        return cache;
+    }
+
+    private static TariffQuoteCache.QuoteKey key(String hts8) {
+        return new TariffQuoteCache.QuoteKey(hts8, "CN", "US");
+    }
+
+    private static Optional<EffectiveRates> rates(String hts8) {
+        return Optional.of(new EffectiveRates(hts8, "Horses", "MFN Free", 0.02, 0, null, 0, null));
+    }
+
+    // A loader that counts its calls
+    private static final class CountingLoader implements Supplier<Optional<EffectiveRates>> {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Optional<EffectiveRates> result;
+        private final Runnable whileLoading;
+
+        private CountingLoader(Optional<EffectiveRates> result, Runnable whileLoading) {
+            this.result = result;
+            this.whileLoading = whileLoading;
+        }
+
+        private CountingLoader(Optional<EffectiveRates> result) {
+            this(result, () -> {});
+        }
+
+        @Override
+        public Optional<EffectiveRates> get() {
+            calls.incrementAndGet();
+            whileLoading.run();
+            return result;
+        }
+    }
+
+    @Test
+    void loadsOnAMissAndServesHitsFromTheCache() {
+        TariffQuoteCache cache = cache(100, 4);
+        CountingLoader loader = new CountingLoader(rates("01012100"));
+
+        assertThat(cache.get(US_KEY, loader)).isEqualTo(rates("01012100"));
+        assertThat(cache.get(US_KEY, loader)).isEqualTo(rates("01012100"));
+
+        assertThat(loader.calls).hasValue(1);
+        TariffQuoteCache.Stats stats = cache.getStats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.size()).isEqualTo(1);
+    }
+
+    @Test
+    void cachesCodesWithNoTariffLine() {
+        TariffQuoteCache cache = cache(100, 4);
+        CountingLoader loader = new CountingLoader(Optional.empty());
+
+        cache.get(US_KEY, loader);
+        assertThat(cache.get(US_KEY, loader)).isEmpty();
+
+        assertThat(loader.calls).hasValue(1);
+    }
+
+    @Test
+    void aReloadDropsOnlyThatDestinationsEntries() {
+        TariffQuoteCache cache = cache(100, 4);
+        cache.get(US_KEY, new CountingLoader(rates("01012100")));
+        cache.get(SG_KEY, new CountingLoader(rates("01012100")));
+
+        cache.onScheduleReloaded(new TariffScheduleReloadedEvent("US", null));
+
+        CountingLoader usLoader = new CountingLoader(rates("01012100"));
+        CountingLoader sgLoader = new CountingLoader(rates("01012100"));
+        cache.get(US_KEY, usLoader);
+        cache.get(SG_KEY, sgLoader);
+        assertThat(usLoader.calls).hasValue(1);
+        assertThat(sgLoader.calls).hasValue(0);
+    }
+
+    @Test
+    void aLoadThatRacedAReloadOfItsDestinationIsNotCached() {
+        TariffQuoteCache cache = cache(100, 4);
+        CountingLoader stale = new CountingLoader(rates("01012100"),
+                () -> cache.onScheduleReloaded(new TariffScheduleReloadedEvent("US", null)));
+
+        // The caller still gets what was loaded, but the next quote loads again
+        assertThat(cache.get(US_KEY, stale)).isEqualTo(rates("01012100"));
+
+        CountingLoader fresh = new CountingLoader(rates("01012100"));
+        cache.get(US_KEY, fresh);
+        assertThat(fresh.calls).hasValue(1);
+    }
+
+    @Test
+    void aReloadOfAnotherDestinationDoesNotStopCaching() {
+        TariffQuoteCache cache = cache(100, 4);
+        CountingLoader loader = new CountingLoader(rates("01012100"),
+                () -> cache.onScheduleReloaded(new TariffScheduleReloadedEvent("SG", null)));
+
+        cache.get(US_KEY, loader);
+        cache.get(US_KEY, loader);
+
+        assertThat(loader.calls).hasValue(1);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryPastCapacity() {
+        TariffQuoteCache cache = cache(2, 1);
+        cache.get(key("01"), new CountingLoader(rates("01")));
+        cache.get(key("02"), new CountingLoader(rates("02")));
+        // Touch 01 so 02 is the eldest
+        cache.get(key("01"), new CountingLoader(rates("01")));
+
+        cache.get(key("03"), new CountingLoader(rates("03")));
+
+        CountingLoader reload01 = new CountingLoader(rates("01"));
+        CountingLoader reload02 = new CountingLoader(rates("02"));
+        cache.get(key("01"), reload01);
+        assertThat(reload01.calls).hasValue(0);
+        cache.get(key("02"), reload02);
+        assertThat(reload02.calls).hasValue(1);
+
+        TariffQuoteCache.Stats stats = cache.getStats();
+        assertThat(stats.size()).isEqualTo(2);
+        assertThat(stats.evictions()).isEqualTo(2);
+    }
+
+    @Test
+    void normalizesOrigins() {
+        assertThat(TariffQuoteCache.normalizeOrigin(" cn ")).isEqualTo("CN");
+        assertThat(TariffQuoteCache.normalizeOrigin(null)).isNull();
+    }
+}